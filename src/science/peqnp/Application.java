@@ -8,8 +8,12 @@
 
 package science.peqnp;
 
+import science.peqnp.satisfiability.CubeAndConquer;
+import science.peqnp.satisfiability.Portfolio;
 import science.peqnp.satisfiability.Solver;
 
+import java.util.function.Consumer;
+
 public class Application {
 
     public static void main(String[] args) {
@@ -20,7 +24,71 @@ public class Application {
         System.out.println("c www.peqnp.science");
         System.out.println("c                  ");
 
-        Solver solver = new Solver();
-        solver.solve(args[0]);
+        Consumer<Solver> configuration = solver -> { };
+        String cnfFile = null;
+        int threads = 1;
+        int cube = -1;
+        String cache = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--vmtf":
+                    configuration = configuration.andThen(solver -> solver.vmtf(true));
+                    break;
+                case "--no-elim":
+                    configuration = configuration.andThen(solver -> solver.eliminate(false));
+                    break;
+                case "--no-subsume":
+                    configuration = configuration.andThen(solver -> solver.subsume(false));
+                    break;
+                case "--no-probe":
+                    configuration = configuration.andThen(solver -> solver.probe(false));
+                    break;
+                case "--no-vivify":
+                    configuration = configuration.andThen(solver -> solver.vivify(false));
+                    break;
+                case "--chrono":
+                    int levels = Integer.parseInt(args[++i]);
+                    configuration = configuration.andThen(solver -> solver.chrono(levels));
+                    break;
+                case "--no-target":
+                    configuration = configuration.andThen(solver -> solver.target(false));
+                    break;
+                case "--no-rephase":
+                    configuration = configuration.andThen(solver -> solver.rephase(false));
+                    break;
+                case "--no-walk":
+                    configuration = configuration.andThen(solver -> solver.walk(false));
+                    break;
+                case "--restart":
+                    String restart = args[++i];
+                    configuration = configuration.andThen(solver -> solver.restart(restart));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--cube":
+                    cube = Integer.parseInt(args[++i]);
+                    break;
+                case "--cache":
+                    cache = args[++i];
+                    break;
+                default:
+                    cnfFile = args[i];
+            }
+        }
+        if (cube >= 0) {
+            CubeAndConquer cubeAndConquer = new CubeAndConquer(threads, cube, configuration);
+            cubeAndConquer.cache(cache);
+            cubeAndConquer.solve(cnfFile);
+        } else if (threads > 1) {
+            Portfolio portfolio = new Portfolio(threads, configuration);
+            portfolio.cache(cache);
+            portfolio.solve(cnfFile);
+        } else {
+            Solver solver = new Solver();
+            configuration.accept(solver);
+            solver.cache(cache);
+            solver.solve(cnfFile);
+        }
     }
 }
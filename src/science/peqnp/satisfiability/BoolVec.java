@@ -0,0 +1,106 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Arrays;
+
+class BoolVec {
+
+    private boolean[] data = new boolean[0];
+
+    private int sz = 0;
+
+    BoolVec() {
+    }
+
+    BoolVec(int capacity) {
+        data = new boolean[capacity];
+    }
+
+    private static int imax(int x, int y) {
+        int mask = (y - x) >> (4 * 8 - 1);
+        return (x & mask) + (y & ~mask);
+    }
+
+    int size() {
+        return sz;
+    }
+
+    void shrink(int numberOfElements) {
+        sz -= numberOfElements;
+    }
+
+    void push(boolean elem) {
+        if (sz == data.length) {
+            capacity(sz + 1);
+        }
+        data[sz++] = elem;
+    }
+
+    boolean last() {
+        return data[sz - 1];
+    }
+
+    void pop() {
+        if (sz <= 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        sz--;
+    }
+
+    boolean get(int index) {
+        return data[index];
+    }
+
+    boolean set(int index, boolean elem) {
+        return data[index] = elem;
+    }
+
+    void capacity(int minCap) {
+        int cap = data.length;
+        if (cap >= minCap) return;
+        int add = imax((minCap - cap + 1) & ~1, ((cap >> 1) + 2) & ~1);
+        data = Arrays.copyOf(data, cap + add);
+    }
+
+    void growTo(int size) {
+        growTo(size, false);
+    }
+
+    void growTo(int size, boolean pad) {
+        if (sz >= size) return;
+        capacity(size);
+        Arrays.fill(data, sz, size, pad);
+        sz = size;
+    }
+
+    void clear() {
+        sz = 0;
+    }
+
+    boolean isEmpty() {
+        return sz == 0;
+    }
+
+    void copyTo(BoolVec copy) {
+        copy.clear();
+        copy.capacity(sz);
+        System.arraycopy(data, 0, copy.data, 0, sz);
+        copy.sz = sz;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < sz; i++) {
+            out.append(String.format("%b ", data[i]));
+        }
+        return out.toString();
+    }
+}
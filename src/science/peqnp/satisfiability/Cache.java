@@ -0,0 +1,212 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+class Cache {
+
+    private static final int MAGIC = 0x42434E46;
+    private static final int VERSION = 1;
+    private static final long WINDOW = 1L << 30;
+    private static final int BLOCK = 1 << 20;
+
+    private final Path directory;
+
+    Cache(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    static Formula read(String cnfFile, String directory, int threads) throws IOException {
+        if (directory == null || cnfFile.equals("-")) {
+            return Formula.read(cnfFile, threads);
+        }
+        return new Cache(directory).read(cnfFile, threads);
+    }
+
+    Formula read(String cnfFile, int threads) throws IOException {
+        Path file = directory.resolve(key(Paths.get(cnfFile)) + ".bcnf");
+        if (Files.isRegularFile(file)) {
+            try {
+                return load(file);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Formula formula = Formula.read(cnfFile, threads);
+        try {
+            store(formula, file);
+        } catch (IOException e) {
+            System.out.printf("c cache write failed : %s\n", e);
+        }
+        return formula;
+    }
+
+    private static String key(Path source) throws IOException {
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += WINDOW) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position));
+                crc32c.update(buffer.duplicate());
+                crc32.update(buffer);
+            }
+            return String.format("%x-%08x%08x", size, crc32c.getValue(), crc32.getValue());
+        }
+    }
+
+    private void store(Formula formula, Path file) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "blue", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BLOCK);
+            IntVec literals = formula.literals();
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(formula.variables()).putInt(formula.clauses())
+                    .putInt(formula.declaredVariables()).putInt(formula.declaredClauses())
+                    .putInt(literals.size());
+            IntVec clause = new IntVec();
+            for (int i = 0; i < literals.size(); i++) {
+                if (literals.get(i) != Formula.END) {
+                    clause.push(literals.get(i));
+                    continue;
+                }
+                clause.sort((x, y) -> x < y);
+                if (buffer.remaining() < 5 * (clause.size() + 1)) {
+                    write(channel, buffer);
+                    if (buffer.remaining() < 5 * (clause.size() + 1)) {
+                        buffer = ByteBuffer.allocate(5 * (clause.size() + 1));
+                    }
+                }
+                putVarint(buffer, clause.size());
+                for (int k = 0, previous = 0; k < clause.size(); k++) {
+                    putVarint(buffer, clause.get(k) - previous);
+                    previous = clause.get(k);
+                }
+                clause.clear();
+            }
+            write(channel, buffer);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static Formula load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Reader in = new Reader(channel);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a formula cache: " + file);
+            }
+            int variables = in.readInt();
+            int clauses = in.readInt();
+            int declaredVariables = in.readInt();
+            int declaredClauses = in.readInt();
+            int entries = in.readInt();
+            if (variables < 0 || variables > Integer.MAX_VALUE / 2 || clauses < 0 || entries < clauses || entries > channel.size()) {
+                throw new IOException("corrupt formula cache: " + file);
+            }
+            Formula formula = new Formula();
+            formula.declare(declaredVariables, declaredClauses, channel.size());
+            formula.literals().capacity(entries);
+            long read = 0;
+            for (int c = 0; c < clauses; c++) {
+                int size = in.readVarint();
+                read += size + 1L;
+                if (size < 0 || read > entries) {
+                    throw new IOException("corrupt formula cache: " + file);
+                }
+                for (int k = 0, literal = 0; k < size; k++) {
+                    int delta = in.readVarint();
+                    if (delta < 0 || delta >= 2 * variables - literal) {
+                        throw new IOException("corrupt formula cache: " + file);
+                    }
+                    literal += delta;
+                    formula.add(literal);
+                }
+                formula.end();
+            }
+            if (read != entries || formula.variables() != variables) {
+                throw new IOException("corrupt formula cache: " + file);
+            }
+            return formula;
+        }
+    }
+
+    private static final class Reader {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private MappedByteBuffer buffer;
+
+        Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private int next() throws IOException {
+            if (buffer == null || !buffer.hasRemaining()) {
+                if (position >= size) {
+                    throw new IOException("truncated formula cache");
+                }
+                long length = Math.min(WINDOW, size - position);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        int readInt() throws IOException {
+            return next() << 24 | next() << 16 | next() << 8 | next();
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (shift > 28) {
+                    throw new IOException("corrupt formula cache");
+                }
+                int b = next();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Arrays;
+
+class ClauseAllocator {
+
+    static final int UNDEF = -1;
+
+    static final int CORE = 0;
+    static final int MID = 1;
+    static final int LOCAL = 2;
+
+    private static final int HEADER = 3;
+    private static final int SIZE = 0;
+    private static final int FLAGS = 1;
+    private static final int ACTIVITY = 2;
+
+    private static final int LEARNT = 1;
+    private static final int MARK_SHIFT = 1;
+    private static final int MARK_MASK = 3 << MARK_SHIFT;
+    private static final int RELOCED = 1 << 3;
+    private static final int USED = 1 << 4;
+    private static final int TIER_SHIFT = 5;
+    private static final int TIER_MASK = 3 << TIER_SHIFT;
+    private static final int CHECKED = 1 << 7;
+    private static final int VIVIFIED = 1 << 8;
+    private static final int IMPORTED = 1 << 9;
+    private static final int LBD_SHIFT = 10;
+    private static final int LBD_MAX = (1 << (31 - LBD_SHIFT)) - 1;
+
+    private int[] memory;
+    private int sz;
+    private int wasted;
+
+    ClauseAllocator() {
+        this(1 << 20);
+    }
+
+    ClauseAllocator(int capacity) {
+        memory = new int[Math.max(capacity, HEADER)];
+    }
+
+    private void capacity(int minCap) {
+        if (memory.length >= minCap) return;
+        int cap = memory.length;
+        while (cap < minCap) {
+            cap += (cap >> 1) + 8;
+            if (cap < 0) {
+                throw new OutOfMemoryError("clause arena exceeds 2^31 words");
+            }
+        }
+        memory = Arrays.copyOf(memory, cap);
+    }
+
+    void reserve(int words) {
+        capacity((int) Math.min(Integer.MAX_VALUE, (long) sz + words));
+    }
+
+    int alloc(Vector<Literal> ps, boolean learnt) {
+        int cr = sz;
+        capacity(sz + HEADER + ps.size());
+        memory[cr + SIZE] = ps.size();
+        memory[cr + FLAGS] = learnt ? LEARNT : 0;
+        memory[cr + ACTIVITY] = Float.floatToRawIntBits(0);
+        for (int i = 0; i < ps.size(); i++) {
+            memory[cr + HEADER + i] = ps.get(i).value();
+        }
+        sz += HEADER + ps.size();
+        return cr;
+    }
+
+    int alloc(IntVec ps, boolean learnt) {
+        int cr = sz;
+        capacity(sz + HEADER + ps.size());
+        memory[cr + SIZE] = ps.size();
+        memory[cr + FLAGS] = learnt ? LEARNT : 0;
+        memory[cr + ACTIVITY] = Float.floatToRawIntBits(0);
+        for (int i = 0; i < ps.size(); i++) {
+            memory[cr + HEADER + i] = ps.get(i);
+        }
+        sz += HEADER + ps.size();
+        return cr;
+    }
+
+    int size(int cr) {
+        return memory[cr + SIZE];
+    }
+
+    int get(int cr, int i) {
+        return memory[cr + HEADER + i];
+    }
+
+    void set(int cr, int i, int literal) {
+        memory[cr + HEADER + i] = literal;
+    }
+
+    boolean learnt(int cr) {
+        return (memory[cr + FLAGS] & LEARNT) != 0;
+    }
+
+    int mark(int cr) {
+        return (memory[cr + FLAGS] & MARK_MASK) >> MARK_SHIFT;
+    }
+
+    void mark(int cr, int m) {
+        memory[cr + FLAGS] = (memory[cr + FLAGS] & ~MARK_MASK) | ((m << MARK_SHIFT) & MARK_MASK);
+    }
+
+    boolean used(int cr) {
+        return (memory[cr + FLAGS] & USED) != 0;
+    }
+
+    void used(int cr, boolean used) {
+        memory[cr + FLAGS] = used ? memory[cr + FLAGS] | USED : memory[cr + FLAGS] & ~USED;
+    }
+
+    int tier(int cr) {
+        return (memory[cr + FLAGS] & TIER_MASK) >> TIER_SHIFT;
+    }
+
+    void tier(int cr, int tier) {
+        memory[cr + FLAGS] = (memory[cr + FLAGS] & ~TIER_MASK) | (tier << TIER_SHIFT);
+    }
+
+    boolean checked(int cr) {
+        return (memory[cr + FLAGS] & CHECKED) != 0;
+    }
+
+    void checked(int cr, boolean checked) {
+        memory[cr + FLAGS] = checked ? memory[cr + FLAGS] | CHECKED : memory[cr + FLAGS] & ~CHECKED;
+    }
+
+    boolean vivified(int cr) {
+        return (memory[cr + FLAGS] & VIVIFIED) != 0;
+    }
+
+    void vivified(int cr, boolean vivified) {
+        memory[cr + FLAGS] = vivified ? memory[cr + FLAGS] | VIVIFIED : memory[cr + FLAGS] & ~VIVIFIED;
+    }
+
+    boolean imported(int cr) {
+        return (memory[cr + FLAGS] & IMPORTED) != 0;
+    }
+
+    void imported(int cr, boolean imported) {
+        memory[cr + FLAGS] = imported ? memory[cr + FLAGS] | IMPORTED : memory[cr + FLAGS] & ~IMPORTED;
+    }
+
+    int lbd(int cr) {
+        return memory[cr + FLAGS] >>> LBD_SHIFT;
+    }
+
+    void lbd(int cr, int lbd) {
+        memory[cr + FLAGS] = (memory[cr + FLAGS] & ((1 << LBD_SHIFT) - 1)) | (Math.min(lbd, LBD_MAX) << LBD_SHIFT);
+    }
+
+    double activity(int cr) {
+        return Float.intBitsToFloat(memory[cr + ACTIVITY]);
+    }
+
+    double activity(int cr, double value) {
+        memory[cr + ACTIVITY] = Float.floatToRawIntBits((float) value);
+        return activity(cr);
+    }
+
+    void free(int cr) {
+        wasted += HEADER + size(cr);
+    }
+
+    int size() {
+        return sz;
+    }
+
+    int wasted() {
+        return wasted;
+    }
+
+    int reloc(int cr, ClauseAllocator to) {
+        if ((memory[cr + FLAGS] & RELOCED) != 0) {
+            return memory[cr + ACTIVITY];
+        }
+        int length = HEADER + size(cr);
+        int relocated = to.sz;
+        to.capacity(to.sz + length);
+        System.arraycopy(memory, cr, to.memory, relocated, length);
+        to.sz += length;
+        memory[cr + FLAGS] |= RELOCED;
+        memory[cr + ACTIVITY] = relocated;
+        return relocated;
+    }
+
+    void moveTo(ClauseAllocator to) {
+        to.memory = memory;
+        to.sz = sz;
+        to.wasted = wasted;
+        memory = new int[HEADER];
+        sz = 0;
+        wasted = 0;
+    }
+}
@@ -0,0 +1,182 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class CubeAndConquer {
+
+    private final int threads;
+    private final int depth;
+    private final Consumer<Solver> configuration;
+    private final PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+    private final ConcurrentLinkedQueue<Solver> workers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<IntVec> cores = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Solver> satisfied = new AtomicReference<>();
+    private final AtomicInteger refuted = new AtomicInteger();
+    private final AtomicInteger pruned = new AtomicInteger();
+    private volatile boolean unsatisfiable;
+    private String cache;
+    private Formula formula;
+    private Vector<IntVec> cubes;
+    private ThreadLocal<Solver> solvers;
+
+    public CubeAndConquer(int threads, int depth, Consumer<Solver> configuration) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads");
+        }
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth");
+        }
+        this.threads = threads;
+        this.depth = depth;
+        this.configuration = configuration;
+    }
+
+    public void cache(String directory) {
+        cache = directory;
+    }
+
+    private boolean done() {
+        return unsatisfiable || satisfied.get() != null;
+    }
+
+    private void cancel() {
+        for (Solver solver : workers) {
+            solver.interrupt();
+        }
+    }
+
+    private Solver worker() {
+        Solver solver = new Solver();
+        configuration.accept(solver);
+        solver.output(silent);
+        solver.incremental(true);
+        solver.load(formula);
+        workers.add(solver);
+        if (done()) {
+            solver.interrupt();
+        }
+        return solver;
+    }
+
+    private static boolean contains(IntVec cube, IntVec core) {
+        for (int i = 0; i < core.size(); i++) {
+            boolean found = false;
+            for (int j = 0; j < cube.size() && !found; j++) {
+                found = cube.get(j) == core.get(i);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void conquer(IntVec cube) {
+        if (done()) {
+            return;
+        }
+        for (IntVec core : cores) {
+            if (contains(cube, core)) {
+                pruned.incrementAndGet();
+                return;
+            }
+        }
+        Solver solver = solvers.get();
+        Ternary status = solver.solve(cube);
+        if (status == Ternary.TRUE) {
+            if (satisfied.compareAndSet(null, solver)) {
+                cancel();
+            }
+        } else if (status == Ternary.FALSE) {
+            IntVec core = solver.core();
+            if (core.size() == 0) {
+                unsatisfiable = true;
+                cancel();
+            } else {
+                refuted.incrementAndGet();
+                cores.add(core);
+            }
+        }
+    }
+
+    public void solve(String cnfFile) {
+        try {
+            Formula original = Cache.read(cnfFile, cache, threads);
+            long ms = System.currentTimeMillis();
+            Solver master = new Solver();
+            configuration.accept(master);
+            master.threads(threads);
+            master.load(original);
+            Ternary status = Ternary.UNDEF;
+            if (master.preprocess()) {
+                cubes = new Vector<>();
+                master.cube(depth, cubes);
+                formula = master.simplified();
+                System.out.printf("c CUB : %d\n", cubes.size());
+                solvers = ThreadLocal.withInitial(this::worker);
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    pool.invoke(new Conquer(0, cubes.size()));
+                } finally {
+                    pool.shutdownNow();
+                }
+                System.out.printf("c REF : %d\n", refuted.get());
+                System.out.printf("c PRN : %d\n", pruned.get());
+                if (satisfied.get() != null) {
+                    master.extend(satisfied.get());
+                    status = Ternary.TRUE;
+                } else if (unsatisfiable || refuted.get() + pruned.get() == cubes.size()) {
+                    status = Ternary.FALSE;
+                }
+            } else {
+                status = Ternary.FALSE;
+            }
+            System.out.println(String.format("\nc TIM : %f(s)", (double) (System.currentTimeMillis() - ms) / 1000));
+            master.print(System.out, status);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private final class Conquer extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Conquer(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (done()) {
+                return;
+            }
+            if (to - from == 1) {
+                conquer(cubes.get(from));
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Conquer(from, middle), new Conquer(middle, to));
+            }
+        }
+    }
+}
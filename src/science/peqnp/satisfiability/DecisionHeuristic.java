@@ -8,16 +8,21 @@
 
 package science.peqnp.satisfiability;
 
-class Block {
-    Clause reason;
-    int level;
-
-    private Block(Clause reason, int level) {
-        this.reason = reason;
-        this.level = level;
-    }
-
-    static Block makeBlock(Clause reason, int level) {
-        return new Block(reason, level);
-    }
+import java.util.Random;
+
+interface DecisionHeuristic {
+
+    void newVariables(int from, int to);
+
+    void insert(int variable);
+
+    void bump(int variable);
+
+    void flush();
+
+    int next();
+
+    int random(Random random);
+
+    void rebuild();
 }
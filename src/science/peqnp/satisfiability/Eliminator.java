@@ -0,0 +1,291 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+class Eliminator {
+
+    private static final int CLAUSE_LIMIT = 20;
+    private static final long PRODUCT_LIMIT = 1 << 16;
+    private static final long STEP_LIMIT = 400_000_000L;
+
+    private final Solver solver;
+    private final ClauseAllocator ca;
+    private final Vector<IntVec> occurs = new Vector<>();
+    private final IntVec counts = new IntVec();
+    private final DoubleVec cost = new DoubleVec();
+    private final Heap queue = new Heap(cost);
+    private final BoolVec touched = new BoolVec();
+    private final IntVec dirty = new IntVec();
+    private final IntVec marks = new IntVec();
+    private final IntVec resolvent = new IntVec();
+    private final BoolVec eliminated = new BoolVec();
+    private final IntVec elimclauses = new IntVec();
+    private int stamp;
+    private int numberOfEliminated;
+    private long steps;
+
+    Eliminator(Solver solver, ClauseAllocator ca) {
+        this.solver = solver;
+        this.ca = ca;
+    }
+
+    int eliminated() {
+        return numberOfEliminated;
+    }
+
+    boolean eliminate(IntVec clauses) {
+        int n = solver.numberOfVariables();
+        counts.clear();
+        counts.growTo(2 * n);
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) == 0 && !ca.learnt(c)) {
+                for (int k = 0; k < ca.size(c); k++) {
+                    counts.set(ca.get(c, k), counts.get(ca.get(c, k)) + 1);
+                }
+            }
+        }
+        occurs.clear();
+        for (int i = 0; i < 2 * n; i++) {
+            occurs.push(new IntVec(counts.get(i)));
+            counts.set(i, 0);
+        }
+        marks.clear();
+        marks.growTo(2 * n);
+        cost.clear();
+        cost.growTo(n);
+        touched.clear();
+        touched.growTo(n);
+        eliminated.growTo(n);
+        steps = 0;
+
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) == 0 && !ca.learnt(c)) {
+                attach(c);
+            }
+        }
+        dirty.clear();
+        for (int v = 0; v < n; v++) {
+            touched.set(v, false);
+            if (eligible(v)) {
+                cost.set(v, -score(v));
+                queue.append(v);
+            }
+        }
+        queue.build();
+
+        while (!queue.empty() && steps < STEP_LIMIT && solver.okay()) {
+            int v = queue.removeMin();
+            if (eligible(v) && !eliminate(v)) {
+                break;
+            }
+            update();
+        }
+
+        queue.clear();
+        occurs.clear();
+        return solver.okay();
+    }
+
+    void extendModel(Vector<Ternary> model) {
+        int i, j;
+        next:
+        for (i = elimclauses.size() - 1; i > 0; i -= j) {
+            for (j = elimclauses.get(i--); j > 1; j--, i--) {
+                int literal = elimclauses.get(i);
+                if (model.get(literal >> 1).xor((literal & 1) != 0) != Ternary.FALSE) {
+                    continue next;
+                }
+            }
+            int x = elimclauses.get(i);
+            model.set(x >> 1, Ternary.valueOf((x & 1) == 0));
+        }
+    }
+
+    void substitute(int literal, int representative) {
+        eliminated.growTo(solver.numberOfVariables());
+        eliminated.set(literal >> 1, true);
+        elimclauses.push(literal);
+        elimclauses.push(representative ^ 1);
+        elimclauses.push(2);
+        elimclauses.push(literal ^ 1);
+        elimclauses.push(representative);
+        elimclauses.push(2);
+    }
+
+    private boolean eligible(int variable) {
+        return !eliminated.get(variable) && solver.isDecision(variable) && solver.value(2 * variable) == Ternary.UNDEF;
+    }
+
+    private double score(int variable) {
+        return (double) counts.get(2 * variable) * counts.get(2 * variable + 1);
+    }
+
+    private void attach(int cls) {
+        for (int i = 0; i < ca.size(cls); i++) {
+            int literal = ca.get(cls, i);
+            occurs.get(literal).push(cls);
+            counts.set(literal, counts.get(literal) + 1);
+            touch(literal >> 1);
+        }
+    }
+
+    private void detach(int cls) {
+        for (int i = 0; i < ca.size(cls); i++) {
+            int literal = ca.get(cls, i);
+            counts.set(literal, counts.get(literal) - 1);
+            touch(literal >> 1);
+        }
+    }
+
+    private void touch(int variable) {
+        if (!touched.get(variable)) {
+            touched.set(variable, true);
+            dirty.push(variable);
+        }
+    }
+
+    private void update() {
+        for (int i = 0; i < dirty.size(); i++) {
+            int v = dirty.get(i);
+            touched.set(v, false);
+            if (!eligible(v)) {
+                continue;
+            }
+            double c = -score(v);
+            if (queue.inHeap(v)) {
+                cost.set(v, c);
+                queue.update(v);
+            } else if (c > cost.get(v)) {
+                cost.set(v, c);
+                queue.insert(v);
+            }
+        }
+        dirty.clear();
+    }
+
+    private IntVec clean(int literal) {
+        IntVec cs = occurs.get(literal);
+        int i, j;
+        for (i = j = 0; i < cs.size(); i++) {
+            if (ca.mark(cs.get(i)) == 0) {
+                cs.set(j++, cs.get(i));
+            }
+        }
+        cs.shrink(i - j);
+        return cs;
+    }
+
+    private boolean resolve(int p, int q, int variable) {
+        resolvent.clear();
+        stamp++;
+        steps += ca.size(p) + ca.size(q);
+        for (int i = 0; i < ca.size(p); i++) {
+            int literal = ca.get(p, i);
+            if (literal >> 1 == variable) {
+                continue;
+            }
+            Ternary value = solver.value(literal);
+            if (value == Ternary.TRUE) {
+                return false;
+            } else if (value == Ternary.UNDEF && marks.get(literal) != stamp) {
+                marks.set(literal, stamp);
+                resolvent.push(literal);
+            }
+        }
+        for (int i = 0; i < ca.size(q); i++) {
+            int literal = ca.get(q, i);
+            if (literal >> 1 == variable) {
+                continue;
+            }
+            Ternary value = solver.value(literal);
+            if (value == Ternary.TRUE || marks.get(literal ^ 1) == stamp) {
+                return false;
+            } else if (value == Ternary.UNDEF && marks.get(literal) != stamp) {
+                marks.set(literal, stamp);
+                resolvent.push(literal);
+            }
+        }
+        return true;
+    }
+
+    private void pushElimClause(int variable, int cls) {
+        int first = elimclauses.size();
+        int position = first;
+        for (int i = 0; i < ca.size(cls); i++) {
+            int literal = ca.get(cls, i);
+            if (literal >> 1 == variable) {
+                position = elimclauses.size();
+            }
+            elimclauses.push(literal);
+        }
+        int literal = elimclauses.get(position);
+        elimclauses.set(position, elimclauses.get(first));
+        elimclauses.set(first, literal);
+        elimclauses.push(ca.size(cls));
+    }
+
+    private boolean eliminate(int variable) {
+        IntVec pos = clean(2 * variable);
+        IntVec neg = clean(2 * variable + 1);
+        if ((long) pos.size() * neg.size() > PRODUCT_LIMIT) {
+            return true;
+        }
+
+        int bound = pos.size() + neg.size();
+        int resolvents = 0;
+        for (int i = 0; i < pos.size(); i++) {
+            for (int j = 0; j < neg.size(); j++) {
+                if (resolve(pos.get(i), neg.get(j), variable) &&
+                        (++resolvents > bound || resolvent.size() > CLAUSE_LIMIT)) {
+                    return true;
+                }
+            }
+        }
+
+        IntVec smaller = pos.size() > neg.size() ? neg : pos;
+        for (int i = 0; i < smaller.size(); i++) {
+            pushElimClause(variable, smaller.get(i));
+        }
+        elimclauses.push(smaller == pos ? 2 * variable + 1 : 2 * variable);
+        elimclauses.push(1);
+
+        eliminated.set(variable, true);
+        solver.setDecisionVariable(variable, false);
+        numberOfEliminated++;
+
+        for (int i = 0; i < pos.size(); i++) {
+            for (int j = 0; j < neg.size(); j++) {
+                if (resolve(pos.get(i), neg.get(j), variable)) {
+                    int cr = solver.addClause(resolvent);
+                    if (!solver.okay()) {
+                        return false;
+                    }
+                    if (cr != ClauseAllocator.UNDEF) {
+                        attach(cr);
+                    }
+                }
+            }
+        }
+
+        for (int k = 0; k < 2; k++) {
+            IntVec cs = k == 0 ? pos : neg;
+            for (int i = 0; i < cs.size(); i++) {
+                int c = cs.get(i);
+                if (ca.mark(c) == 0) {
+                    detach(c);
+                    solver.removeClause(c);
+                }
+            }
+            cs.clear();
+        }
+        return true;
+    }
+}
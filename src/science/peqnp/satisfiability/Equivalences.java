@@ -0,0 +1,160 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+class Equivalences {
+
+    private final Solver solver;
+    private final ClauseAllocator ca;
+    private final IntVec representative = new IntVec();
+    private final IntVec index = new IntVec();
+    private final IntVec low = new IntVec();
+    private final IntVec stack = new IntVec();
+    private final BoolVec onStack = new BoolVec();
+    private final IntVec nodes = new IntVec();
+    private final IntVec positions = new IntVec();
+    private final IntVec component = new IntVec();
+    private int counter;
+    private int substituted;
+
+    Equivalences(Solver solver, ClauseAllocator ca) {
+        this.solver = solver;
+        this.ca = ca;
+    }
+
+    int substituted() {
+        return substituted;
+    }
+
+    int representative(int literal) {
+        return representative.get(literal);
+    }
+
+    int find(Watchers binaries) {
+        int n = 2 * solver.numberOfVariables();
+        representative.clear();
+        index.clear();
+        low.clear();
+        onStack.clear();
+        for (int literal = 0; literal < n; literal++) {
+            representative.push(literal);
+            index.push(-1);
+            low.push(0);
+            onStack.push(false);
+        }
+        counter = 0;
+
+        int found = 0;
+        for (int root = 0; root < n; root++) {
+            if (index.get(root) != -1 || !candidate(root)) {
+                continue;
+            }
+            int f = search(binaries, root);
+            if (f < 0) {
+                return -1;
+            }
+            found += f;
+        }
+        substituted += found;
+        return found;
+    }
+
+    private boolean candidate(int literal) {
+        return solver.isDecision(literal >> 1) && solver.value(literal) == Ternary.UNDEF;
+    }
+
+    private void visit(int literal) {
+        index.set(literal, counter);
+        low.set(literal, counter++);
+        stack.push(literal);
+        onStack.set(literal, true);
+        nodes.push(literal);
+        positions.push(0);
+    }
+
+    private int search(Watchers binaries, int root) {
+        int found = 0;
+        visit(root);
+        while (!nodes.isEmpty()) {
+            int node = nodes.last();
+            int position = positions.last();
+            IntVec ws = binaries.get(node);
+            if (position < ws.size()) {
+                positions.set(positions.size() - 1, position + 2);
+                int implied = ws.get(position + 1);
+                if (ca.mark(ws.get(position)) != 0 || !candidate(implied)) {
+                    continue;
+                }
+                if (index.get(implied) == -1) {
+                    visit(implied);
+                } else if (onStack.get(implied)) {
+                    low.set(node, Math.min(low.get(node), index.get(implied)));
+                }
+                continue;
+            }
+
+            nodes.pop();
+            positions.pop();
+            if (!nodes.isEmpty()) {
+                int parent = nodes.last();
+                low.set(parent, Math.min(low.get(parent), low.get(node)));
+            }
+            if (low.get(node) == index.get(node)) {
+                int f = collect(node);
+                if (f < 0) {
+                    nodes.clear();
+                    positions.clear();
+                    stack.clear();
+                    return -1;
+                }
+                found += f;
+            }
+        }
+        return found;
+    }
+
+    private int collect(int node) {
+        component.clear();
+        int literal;
+        do {
+            literal = stack.last();
+            stack.pop();
+            onStack.set(literal, false);
+            component.push(literal);
+        } while (literal != node);
+
+        if (component.size() == 1) {
+            return 0;
+        }
+
+        int r = component.get(0);
+        for (int i = 1; i < component.size(); i++) {
+            if (component.get(i) >> 1 < r >> 1) {
+                r = component.get(i);
+            }
+        }
+
+        int found = 0;
+        for (int i = 0; i < component.size(); i++) {
+            int l = component.get(i);
+            if (l == r) {
+                continue;
+            }
+            if (l == (r ^ 1) || representative.get(l ^ 1) == r) {
+                return -1;
+            }
+            if (representative.get(l) == l) {
+                found++;
+            }
+            representative.set(l, r);
+            representative.set(l ^ 1, r ^ 1);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,190 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+class Exchange {
+
+    static final int SIZE_LIMIT = 32;
+
+    private static final int CAPACITY = 1 << 16;
+    private static final int FILTER = 1 << 16;
+    private static final int EXPORT_RATE = 8;
+    private static final int EXPORT_BURST = 1024;
+
+    private final Ring[] rings;
+    private final Channel[] channels;
+
+    Exchange(int workers) {
+        rings = new Ring[workers];
+        channels = new Channel[workers];
+        for (int i = 0; i < workers; i++) {
+            rings[i] = new Ring(CAPACITY);
+        }
+        for (int i = 0; i < workers; i++) {
+            channels[i] = new Channel(i);
+        }
+    }
+
+    Channel channel(int worker) {
+        return channels[worker];
+    }
+
+    long exported() {
+        long sum = 0;
+        for (Channel channel : channels) {
+            sum += channel.exported;
+        }
+        return sum;
+    }
+
+    long imported() {
+        long sum = 0;
+        for (Channel channel : channels) {
+            sum += channel.imported;
+        }
+        return sum;
+    }
+
+    long useful() {
+        long sum = 0;
+        for (Channel channel : channels) {
+            sum += channel.useful;
+        }
+        return sum;
+    }
+
+    private static long hash(IntVec clause) {
+        long sum = 0;
+        long xor = 0;
+        for (int i = 0; i < clause.size(); i++) {
+            long z = (clause.get(i) + 1) * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z ^= z >>> 31;
+            sum += z;
+            xor ^= z;
+        }
+        return sum ^ Long.rotateLeft(xor, 17) ^ clause.size();
+    }
+
+    private static final class Ring {
+
+        private final AtomicIntegerArray buffer;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        Ring(int capacity) {
+            buffer = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+        }
+
+        void write(IntVec clause, int lbd) {
+            long t = tail.get();
+            head.set(t + 2 + clause.size());
+            buffer.set((int) (t & mask), clause.size());
+            buffer.set((int) ((t + 1) & mask), lbd);
+            for (int i = 0; i < clause.size(); i++) {
+                buffer.set((int) ((t + 2 + i) & mask), clause.get(i));
+            }
+            tail.set(t + 2 + clause.size());
+        }
+
+        long read(long cursor, IntVec clause) {
+            int size = buffer.get((int) (cursor & mask));
+            int lbd = buffer.get((int) ((cursor + 1) & mask));
+            clause.clear();
+            if (size < 1 || size > SIZE_LIMIT) {
+                return -1;
+            }
+            for (int i = 0; i < size; i++) {
+                clause.push(buffer.get((int) ((cursor + 2 + i) & mask)));
+            }
+            if (head.get() - buffer.length() > cursor) {
+                return -1;
+            }
+            clause.push(lbd);
+            return cursor + 2 + size;
+        }
+    }
+
+    final class Channel {
+
+        private final int worker;
+        private final long[] cursors;
+        private final long[] filter = new long[FILTER];
+        private long budget = EXPORT_BURST;
+        private int source;
+        private volatile long exported;
+        private volatile long imported;
+        private volatile long useful;
+
+        private Channel(int worker) {
+            this.worker = worker;
+            this.cursors = new long[rings.length];
+        }
+
+        private boolean seen(IntVec clause) {
+            long h = hash(clause);
+            int slot = (int) (h ^ (h >>> 32)) & (FILTER - 1);
+            if (filter[slot] == h) {
+                return true;
+            }
+            filter[slot] = h;
+            return false;
+        }
+
+        void conflict() {
+            budget = Math.min(budget + EXPORT_RATE, CAPACITY / 2);
+        }
+
+        void export(IntVec clause, int lbd) {
+            if (clause.size() > SIZE_LIMIT || clause.size() > 1 && clause.size() > budget || seen(clause)) {
+                return;
+            }
+            budget -= clause.size();
+            rings[worker].write(clause, lbd);
+            exported++;
+        }
+
+        int next(IntVec clause) {
+            for (int k = 0; k < rings.length; k++, source = (source + 1) % rings.length) {
+                if (source == worker) {
+                    continue;
+                }
+                Ring ring = rings[source];
+                while (cursors[source] < ring.tail.get()) {
+                    long cursor = ring.tail.get() - cursors[source] > CAPACITY ? -1 : ring.read(cursors[source], clause);
+                    if (cursor < 0) {
+                        cursors[source] = ring.tail.get();
+                        break;
+                    }
+                    cursors[source] = cursor;
+                    int lbd = clause.last();
+                    clause.pop();
+                    if (!seen(clause)) {
+                        return lbd;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        void imported() {
+            imported++;
+        }
+
+        void useful() {
+            useful++;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+class Formula {
+
+    static final int END = -1;
+
+    private static final long CHUNK_MIN = 1 << 23;
+
+    private final IntVec literals = new IntVec();
+    private int variables;
+    private int clauses;
+    private int declaredVariables;
+    private int declaredClauses;
+
+    static Formula read(String cnfFile, int threads) throws IOException {
+        if (cnfFile.equals("-")) {
+            return read(System.in);
+        } else if (cnfFile.endsWith(".gz") || cnfFile.endsWith(".xz") || cnfFile.endsWith(".bz2")) {
+            return read(decompress(cnfFile));
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(cnfFile), StandardOpenOption.READ)) {
+            long[] bounds = Parser.split(channel, (int) Math.max(1, Math.min(threads, channel.size() / CHUNK_MIN)));
+            if (bounds.length == 2) {
+                Formula formula = new Formula();
+                new Parser(channel).parse(formula);
+                return formula;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(bounds.length - 1);
+            try {
+                Vector<Future<Formula>> chunks = new Vector<>();
+                for (int k = 0; k + 1 < bounds.length; k++) {
+                    long start = bounds[k];
+                    long end = bounds[k + 1];
+                    chunks.push(executor.submit(() -> {
+                        Formula chunk = new Formula();
+                        new Parser(channel, start, end).parse(chunk);
+                        return chunk;
+                    }));
+                }
+                Formula formula = chunks.get(0).get();
+                int size = 0;
+                for (int k = 0; k < chunks.size(); k++) {
+                    size += chunks.get(k).get().literals.size();
+                }
+                formula.literals.capacity(size);
+                for (int k = 1; k < chunks.size(); k++) {
+                    formula.append(chunks.get(k).get());
+                }
+                return formula;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static Formula read(InputStream in) throws IOException {
+        Formula formula = new Formula();
+        new Parser(in).parse(formula);
+        return formula;
+    }
+
+    private static InputStream decompress(String cnfFile) throws IOException {
+        InputStream in = new FileInputStream(cnfFile);
+        try {
+            if (cnfFile.endsWith(".gz")) {
+                return new GZIPInputStream(in, 1 << 16);
+            } else if (cnfFile.endsWith(".xz")) {
+                return codec("org.tukaani.xz.XZInputStream", in);
+            } else {
+                return codec("org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream", in);
+            }
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static InputStream codec(String name, InputStream in) throws IOException {
+        try {
+            return (InputStream) Class.forName(name).getConstructor(InputStream.class).newInstance(in);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("no decompressor on the classpath: " + name);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    void declare(int variables, int clauses, long limit) {
+        declaredVariables = variables;
+        declaredClauses = clauses;
+        literals.capacity((int) Math.max(0, Math.min(3L * clauses, Math.min(limit, Integer.MAX_VALUE))));
+    }
+
+    void push(int dimacs) {
+        int var = Math.abs(dimacs) - 1;
+        add(var + var + (dimacs < 0 ? 1 : 0));
+    }
+
+    void add(int literal) {
+        variables = Math.max(variables, (literal >> 1) + 1);
+        literals.push(literal);
+    }
+
+    void end() {
+        literals.push(END);
+        clauses++;
+    }
+
+    private void append(Formula chunk) {
+        literals.append(chunk.literals);
+        variables = Math.max(variables, chunk.variables);
+        clauses += chunk.clauses;
+        declaredVariables = Math.max(declaredVariables, chunk.declaredVariables);
+        declaredClauses = Math.max(declaredClauses, chunk.declaredClauses);
+    }
+
+    int variables() {
+        return variables;
+    }
+
+    void variables(int variables) {
+        this.variables = Math.max(this.variables, variables);
+    }
+
+    int clauses() {
+        return clauses;
+    }
+
+    int declaredVariables() {
+        return declaredVariables;
+    }
+
+    int declaredClauses() {
+        return declaredClauses;
+    }
+
+    IntVec literals() {
+        return literals;
+    }
+}
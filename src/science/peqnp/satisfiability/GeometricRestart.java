@@ -0,0 +1,50 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+class GeometricRestart implements RestartPolicy {
+
+    private final int first;
+    private final double increment;
+    private final boolean bias;
+    private int restarts;
+    private int conflicts;
+    private double limit;
+
+    GeometricRestart(int first, double increment, boolean bias) {
+        this.first = first;
+        this.increment = increment;
+        this.bias = bias;
+    }
+
+    private static double activation(double a, double x) {
+        if (a < 0) {
+            return (1.0 / (1 - a * (a + x)));
+        } else {
+            return Math.exp(a * x);
+        }
+    }
+
+    @Override
+    public void start() {
+        double base = bias ? activation(increment, restarts) : Math.pow(increment, restarts);
+        limit = base * first;
+        restarts++;
+    }
+
+    @Override
+    public void conflict(int lbd, int trailSize) {
+        conflicts++;
+    }
+
+    @Override
+    public boolean restart() {
+        return conflicts >= limit;
+    }
+}
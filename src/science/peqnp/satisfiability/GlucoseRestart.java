@@ -0,0 +1,52 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+class GlucoseRestart implements RestartPolicy {
+
+    private static final double FAST_ALPHA = 1.0 / 32;
+    private static final double SLOW_ALPHA = 1.0 / 10000;
+    private static final double TRAIL_ALPHA = 1.0 / 5000;
+    private static final double RESTART_MARGIN = 1.0 / 0.8;
+    private static final double BLOCK_MARGIN = 1.4;
+    private static final int BLOCK_AFTER = 10000;
+    private static final int MIN_INTERVAL = 50;
+
+    private double fast;
+    private double slow;
+    private double trail;
+    private long conflicts;
+    private int sinceRestart;
+
+    private double alpha(double alpha) {
+        return Math.max(alpha, 1.0 / conflicts);
+    }
+
+    @Override
+    public void start() {
+        sinceRestart = 0;
+    }
+
+    @Override
+    public void conflict(int lbd, int trailSize) {
+        conflicts++;
+        sinceRestart++;
+        if (conflicts > BLOCK_AFTER && sinceRestart >= MIN_INTERVAL && trailSize > BLOCK_MARGIN * trail) {
+            sinceRestart = 0;
+        }
+        trail += (trailSize - trail) * alpha(TRAIL_ALPHA);
+        fast += (lbd - fast) * alpha(FAST_ALPHA);
+        slow += (lbd - slow) * alpha(SLOW_ALPHA);
+    }
+
+    @Override
+    public boolean restart() {
+        return sinceRestart >= MIN_INTERVAL && fast > RESTART_MARGIN * slow;
+    }
+}
@@ -8,14 +8,17 @@
 
 package science.peqnp.satisfiability;
 
+import java.util.Arrays;
+
 class Heap {
 
-    private Order lt;
-    private Vector<Integer> heap = new Vector<>();
-    private Vector<Integer> indices = new Vector<>();
+    private final DoubleVec activity;
+    private int[] heap = new int[0];
+    private int[] indices = new int[0];
+    private int sz;
 
-    Heap(Order lt) {
-        this.lt = lt;
+    Heap(DoubleVec activity) {
+        this.activity = activity;
     }
 
     private static int left(int i) {
@@ -31,100 +34,109 @@ class Heap {
     }
 
     int size() {
-        return heap.size();
+        return sz;
     }
 
     boolean empty() {
-        return heap.size() == 0;
+        return sz == 0;
     }
 
     boolean inHeap(int n) {
-        return n < indices.size() && indices.get(n) >= 0;
+        return n < indices.length && indices[n] >= 0;
     }
 
     private void percolateUp(int i) {
-        int x = heap.get(i);
+        double[] act = activity.array();
+        int x = heap[i];
+        double ax = act[x];
         int p = parent(i);
 
-        while (i != 0 && lt.call(x, heap.get(p))) {
-            heap.set(i, heap.get(p));
-            indices.set(heap.get(p), i);
+        while (i != 0 && ax > act[heap[p]]) {
+            heap[i] = heap[p];
+            indices[heap[p]] = i;
             i = p;
             p = parent(p);
         }
-        heap.set(i, x);
-        indices.set(x, i);
+        heap[i] = x;
+        indices[x] = i;
     }
 
     private void percolateDown(int i) {
-        int x = heap.get(i);
-        while (left(i) < heap.size()) {
-            int child = right(i) < heap.size() && lt.call(heap.get(right(i)), heap.get(left(i))) ? right(i) : left(i);
-            if (!lt.call(heap.get(child), x)) break;
-            heap.set(i, heap.get(child));
-            indices.set(heap.get(i), i);
+        double[] act = activity.array();
+        int x = heap[i];
+        double ax = act[x];
+        while (left(i) < sz) {
+            int l = left(i);
+            int r = right(i);
+            int child = r < sz && act[heap[r]] > act[heap[l]] ? r : l;
+            if (!(act[heap[child]] > ax)) break;
+            heap[i] = heap[child];
+            indices[heap[i]] = i;
             i = child;
         }
-        heap.set(i, x);
-        indices.set(x, i);
+        heap[i] = x;
+        indices[x] = i;
     }
 
     public int get(int index) {
-        if (index >= heap.size()) {
+        if (index >= sz) {
             throw new IndexOutOfBoundsException("index");
         }
-        return heap.get(index);
+        return heap[index];
     }
 
     void decrease(int n) {
         if (!inHeap(n))
             throw new IllegalArgumentException("n");
-        percolateUp(indices.get(n));
+        percolateUp(indices[n]);
+    }
+
+    void update(int n) {
+        if (!inHeap(n))
+            throw new IllegalArgumentException("n");
+        percolateUp(indices[n]);
+        percolateDown(indices[n]);
     }
 
     void insert(int n) {
-        indices.growTo(n + 1);
-        indices.set(n, heap.size());
-        heap.push(n);
-        percolateUp(indices.get(n));
+        append(n);
+        percolateUp(indices[n]);
     }
 
     int removeMin() {
-        int x = heap.get(0);
-        heap.set(0, heap.last());
-        indices.set(heap.get(0), 0);
-        indices.set(x, -1);
-        heap.pop();
-        if (heap.size() > 1) {
+        int x = heap[0];
+        heap[0] = heap[--sz];
+        indices[heap[0]] = 0;
+        indices[x] = -1;
+        if (sz > 1) {
             percolateDown(0);
         }
         return x;
     }
 
-    void build(Vector<Integer> ns) {
-        for (int i = 0; i < heap.size(); i++) {
-            indices.set(heap.get(i), -1);
-        }
-        heap.clear();
-        for (int i = 0; i < ns.size(); i++) {
-            indices.set(ns.get(i), i);
-            heap.push(ns.get(i));
-        }
-        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
-            percolateDown(i);
+    void clear() {
+        for (int i = 0; i < sz; i++) {
+            indices[heap[i]] = -1;
         }
+        sz = 0;
     }
 
-    static class Order {
-
-        private final Vector<Double> activities;
-
-        Order(Vector<Double> activities) {
-            this.activities = activities;
+    void append(int n) {
+        if (n >= indices.length) {
+            int old = indices.length;
+            indices = Arrays.copyOf(indices, Math.max(n + 1, old + (old >> 1)));
+            Arrays.fill(indices, old, indices.length, -1);
         }
+        if (sz == heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(sz + 1, sz + (sz >> 1)));
+        }
+        indices[n] = sz;
+        heap[sz++] = n;
+    }
 
-        boolean call(int x, int y) {
-            return activities.get(x) > activities.get(y);
+    void build() {
+        for (int i = sz / 2 - 1; i >= 0; i--) {
+            percolateDown(i);
         }
     }
 }
@@ -0,0 +1,151 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Arrays;
+
+class IntVec {
+
+    private int[] data = new int[0];
+
+    private int sz = 0;
+
+    IntVec() {
+    }
+
+    IntVec(int capacity) {
+        data = new int[capacity];
+    }
+
+    private static int imax(int x, int y) {
+        int mask = (y - x) >> (4 * 8 - 1);
+        return (x & mask) + (y & ~mask);
+    }
+
+    int size() {
+        return sz;
+    }
+
+    void shrink(int numberOfElements) {
+        sz -= numberOfElements;
+    }
+
+    void push(int elem) {
+        if (sz == data.length) {
+            capacity(sz + 1);
+        }
+        data[sz++] = elem;
+    }
+
+    int last() {
+        return data[sz - 1];
+    }
+
+    void pop() {
+        if (sz <= 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        sz--;
+    }
+
+    int get(int index) {
+        return data[index];
+    }
+
+    int set(int index, int elem) {
+        return data[index] = elem;
+    }
+
+    void capacity(int minCap) {
+        int cap = data.length;
+        if (cap >= minCap) return;
+        int add = imax((minCap - cap + 1) & ~1, ((cap >> 1) + 2) & ~1);
+        data = Arrays.copyOf(data, cap + add);
+    }
+
+    void growTo(int size) {
+        growTo(size, 0);
+    }
+
+    void growTo(int size, int pad) {
+        if (sz >= size) return;
+        capacity(size);
+        Arrays.fill(data, sz, size, pad);
+        sz = size;
+    }
+
+    void clear() {
+        sz = 0;
+    }
+
+    boolean isEmpty() {
+        return sz == 0;
+    }
+
+    void append(IntVec other) {
+        capacity(sz + other.sz);
+        System.arraycopy(other.data, 0, data, sz, other.sz);
+        sz += other.sz;
+    }
+
+    void copyTo(IntVec copy) {
+        copy.clear();
+        copy.capacity(sz);
+        System.arraycopy(data, 0, copy.data, 0, sz);
+        copy.sz = sz;
+    }
+
+    void sort(Order order) {
+        sort(order, 0, sz);
+    }
+
+    private void sort(Order order, int from, int to) {
+        while (to - from > 16) {
+            int pivot = data[(from + to) >>> 1];
+            int i = from - 1;
+            int j = to;
+            for (; ; ) {
+                do i++; while (order.lt(data[i], pivot));
+                do j--; while (order.lt(pivot, data[j]));
+                if (i >= j) break;
+                int tmp = data[i];
+                data[i] = data[j];
+                data[j] = tmp;
+            }
+            if (i - from < to - i) {
+                sort(order, from, i);
+                from = i;
+            } else {
+                sort(order, i, to);
+                to = i;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            int x = data[i];
+            int j = i;
+            for (; j > from && order.lt(x, data[j - 1]); j--) {
+                data[j] = data[j - 1];
+            }
+            data[j] = x;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < sz; i++) {
+            out.append(String.format("%d ", data[i]));
+        }
+        return out.toString();
+    }
+
+    interface Order {
+        boolean lt(int x, int y);
+    }
+}
@@ -8,16 +8,15 @@
 
 package science.peqnp.satisfiability;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 public class Literal {
     private static final int UNDEF_VALUE = -2;
     static final Literal UNDEF = new Literal(UNDEF_VALUE);
     private static final int ERROR_VALUE = -1;
     private static final Literal ERROR = new Literal(ERROR_VALUE);
-    private static final List<Literal> cache = new ArrayList<>();
-    private int literal;
+    private static volatile Literal[] cache = new Literal[0];
+    private final int literal;
 
     public Literal(int literal) {
         this.literal = literal;
@@ -31,11 +30,21 @@ public class Literal {
                 return ERROR;
         }
 
-        for (int i = cache.size(); i <= literal; i++) {
-            cache.add(new Literal(i));
-        }
+        Literal[] literals = cache;
+        return literal < literals.length ? literals[literal] : grow(literal);
+    }
 
-        return cache.get(literal);
+    private static synchronized Literal grow(int literal) {
+        Literal[] literals = cache;
+        if (literal >= literals.length) {
+            int old = literals.length;
+            literals = Arrays.copyOf(literals, Math.max(literal + 1, old + (old >> 1)));
+            for (int i = old; i < literals.length; i++) {
+                literals[i] = new Literal(i);
+            }
+            cache = literals;
+        }
+        return literals[literal];
     }
 
     public static Literal valueOf(int var, boolean sign) {
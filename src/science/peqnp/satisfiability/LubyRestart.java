@@ -0,0 +1,50 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+class LubyRestart implements RestartPolicy {
+
+    private final int unit;
+    private int restarts;
+    private int conflicts;
+    private double limit;
+
+    LubyRestart(int unit) {
+        this.unit = unit;
+    }
+
+    static double luby(double y, int x) {
+        int size, seq;
+        for (size = 1, seq = 0; size < x + 1; seq++, size = 2 * size + 1) ;
+
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            seq--;
+            x = x % size;
+        }
+
+        return Math.pow(y, seq);
+    }
+
+    @Override
+    public void start() {
+        limit = luby(2, restarts++) * unit;
+        conflicts = 0;
+    }
+
+    @Override
+    public void conflict(int lbd, int trailSize) {
+        conflicts++;
+    }
+
+    @Override
+    public boolean restart() {
+        return conflicts >= limit;
+    }
+}
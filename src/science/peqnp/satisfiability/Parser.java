@@ -9,43 +9,268 @@
 package science.peqnp.satisfiability;
 
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 class Parser {
 
     private static final int EOF = -1;
+    private static final long WINDOW = 1L << 30;
+    private static final int BLOCK = 1 << 16;
+    private static final int BLOCKS = 16;
 
-    private Reader in;
+    private final Source source;
+    private ByteBuffer buffer;
     private int ch;
 
-    Parser(Reader in) throws IOException {
-        this.in = in;
-        this.ch = in.read();
+    Parser(FileChannel channel) throws IOException {
+        this(channel, 0, channel.size());
     }
 
-    String read() throws IOException {
-        if (ch == EOF) return null;
-        while (Character.isWhitespace(ch))
-            ch = in.read();
-        if (ch == EOF) return null;
-        StringBuilder sb = new StringBuilder();
-        do {
-            sb.append((char) ch);
-            ch = in.read();
-        } while (ch != EOF && !Character.isWhitespace(ch));
-        return sb.toString();
+    Parser(FileChannel channel, long start, long end) throws IOException {
+        this(new Mapped(channel, start, end));
     }
 
-    int readInt() throws IOException {
-        return Integer.parseInt(read());
+    Parser(InputStream in) throws IOException {
+        this(new Streamed(in));
     }
 
-    void skipLine() throws IOException {
-        while (ch != EOF && ch != '\r' && ch != '\n')
-            ch = in.read();
-        int first = ch;
-        ch = in.read();
-        if (first == '\r' && ch == '\n')
-            ch = in.read();
+    private Parser(Source source) throws IOException {
+        this.source = source;
+        this.ch = next();
+    }
+
+    static long[] split(FileChannel channel, int chunks) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[chunks + 1];
+        int n = 1;
+        for (int k = 1; k < chunks; k++) {
+            long boundary = boundary(channel, Math.max(size / chunks * k, bounds[n - 1]), size);
+            if (boundary > bounds[n - 1] && boundary < size) {
+                bounds[n++] = boundary;
+            }
+        }
+        bounds[n++] = size;
+        return Arrays.copyOf(bounds, n);
+    }
+
+    private static long boundary(FileChannel channel, long from, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW, size - from));
+        int limit = buffer.limit();
+        int i = 0;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        while (i < limit) {
+            int start = ++i;
+            while (i < limit && buffer.get(i) != '\n') {
+                i++;
+            }
+            if (i < limit && terminated(buffer, start, i)) {
+                return from + i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean terminated(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end || buffer.get(end - 1) != '0' || buffer.get(start) != '-' && (buffer.get(start) < '0' || buffer.get(start) > '9')) {
+            return false;
+        }
+        return end - 1 == start || isWhitespace(buffer.get(end - 2));
+    }
+
+    private int next() throws IOException {
+        while (buffer == null || !buffer.hasRemaining()) {
+            buffer = source.next();
+            if (buffer == null) {
+                return EOF;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (isWhitespace(ch)) {
+            ch = next();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (ch != EOF && ch != '\n') {
+            ch = next();
+        }
+    }
+
+    private IOException error() {
+        return new IOException(ch == EOF ? "PARSE ERROR! Unexpected end of file" : String.format("PARSE ERROR! Unexpected char: %c", ch));
+    }
+
+    private void expect(String word) throws IOException {
+        skipWhitespace();
+        for (int i = 0; i < word.length(); i++) {
+            if (ch != word.charAt(i)) {
+                throw new IOException(String.format("PARSE ERROR! '%s' expected", word));
+            }
+            ch = next();
+        }
+    }
+
+    private int readInt() throws IOException {
+        skipWhitespace();
+        boolean negative = false;
+        if (ch == '-') {
+            negative = true;
+            ch = next();
+        } else if (ch == '+') {
+            ch = next();
+        }
+        if (ch < '0' || ch > '9') {
+            throw error();
+        }
+        int value = 0;
+        while (ch >= '0' && ch <= '9') {
+            value = value * 10 + (ch - '0');
+            ch = next();
+        }
+        return negative ? -value : value;
+    }
+
+    void parse(Formula formula) throws IOException {
+        for (; ; ) {
+            skipWhitespace();
+            if (ch == EOF) {
+                break;
+            } else if (ch == 'c' || ch == 's') {
+                skipLine();
+            } else if (ch == 'p') {
+                ch = next();
+                expect("cnf");
+                int variables = readInt();
+                formula.declare(variables, readInt(), source.length() / 2);
+            } else {
+                for (int literal = readInt(); literal != 0; literal = readInt()) {
+                    formula.push(literal);
+                }
+                formula.end();
+            }
+        }
+    }
+
+    private interface Source {
+
+        ByteBuffer next() throws IOException;
+
+        long length();
+    }
+
+    private static final class Mapped implements Source {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private long position;
+
+        Mapped(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public long length() {
+            return end - start;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (position >= end) {
+                return null;
+            }
+            long length = Math.min(WINDOW, end - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return buffer;
+        }
+    }
+
+    private static final class Streamed implements Source {
+
+        private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+        private final BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(BLOCKS);
+        private volatile Throwable failure;
+        private boolean done;
+
+        Streamed(InputStream in) {
+            Thread reader = new Thread(() -> {
+                try (InputStream input = in) {
+                    int n;
+                    do {
+                        byte[] block = new byte[BLOCK];
+                        n = input.readNBytes(block, 0, BLOCK);
+                        if (n > 0) {
+                            queue.put(ByteBuffer.wrap(block, 0, n));
+                        }
+                    } while (n == BLOCK);
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    try {
+                        queue.put(END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, "cnf-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        @Override
+        public long length() {
+            return 0;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (done) {
+                return null;
+            }
+            ByteBuffer block;
+            try {
+                block = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (block == END) {
+                done = true;
+                if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                } else if (failure != null) {
+                    throw new IOException(failure);
+                }
+                return null;
+            }
+            return block;
+        }
     }
 }
@@ -0,0 +1,125 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class Portfolio {
+
+    private static final String[] RESTARTS = {"geometric", "luby", "glucose"};
+    private static final double[] VARIABLE_DECAYS = {0.95, 0.90, 0.99, 0.85};
+    private static final int[] PHASE_SAVINGS = {2, 2, 1, 2, 0};
+    private static final double[] RANDOM_FREQUENCIES = {0, 0.01, 0, 0.005, 0.02};
+
+    private final int threads;
+    private final Consumer<Solver> configuration;
+    private String cache;
+
+    public Portfolio(int threads, Consumer<Solver> configuration) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads");
+        }
+        this.threads = threads;
+        this.configuration = configuration;
+    }
+
+    public void cache(String directory) {
+        cache = directory;
+    }
+
+    private static void diversify(Solver solver, int index) {
+        solver.restart(RESTARTS[index % RESTARTS.length]);
+        solver.variableDecay(VARIABLE_DECAYS[index % VARIABLE_DECAYS.length]);
+        solver.phaseSaving(PHASE_SAVINGS[index % PHASE_SAVINGS.length]);
+        solver.randomVariableFrequency(RANDOM_FREQUENCIES[index % RANDOM_FREQUENCIES.length]);
+    }
+
+    public void solve(String cnfFile) {
+        try {
+            Formula formula = Cache.read(cnfFile, cache, threads);
+            long ms = System.currentTimeMillis();
+            System.out.printf("c VRS : %d\n", formula.variables());
+            System.out.printf("c CLS : %d\n", formula.clauses());
+            System.out.printf("c THR : %d\n", threads);
+            Solver[] solvers = new Solver[threads];
+            Ternary[] results = new Ternary[threads];
+            PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+            Exchange exchange = new Exchange(threads);
+            for (int i = 0; i < threads; i++) {
+                solvers[i] = new Solver();
+                diversify(solvers[i], i);
+                configuration.accept(solvers[i]);
+                solvers[i].seed(ms + i);
+                solvers[i].output(silent);
+                solvers[i].share(exchange.channel(i));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                completion.submit(() -> {
+                    solvers[index].load(formula);
+                    results[index] = solvers[index].solveFormula();
+                    return index;
+                });
+            }
+
+            int winner = -1;
+            try {
+                for (int k = 0; k < threads && winner < 0; k++) {
+                    int index = completion.take().get();
+                    if (results[index] != Ternary.UNDEF) {
+                        winner = index;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                for (Solver solver : solvers) {
+                    solver.interrupt();
+                }
+                executor.shutdown();
+            }
+
+            System.out.println(String.format("c TIM : %f(s)", (double) (System.currentTimeMillis() - ms) / 1000));
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            System.out.printf("c EXP : %d\n", exchange.exported());
+            System.out.printf("c IMP : %d\n", exchange.imported());
+            System.out.printf("c USE : %d\n", exchange.useful());
+            if (winner < 0) {
+                System.out.println("s UNKNOWN");
+                return;
+            }
+            System.out.printf("c WRK : %d\n", winner);
+            solvers[winner].print(System.out, results[winner]);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -8,21 +8,11 @@
 
 package science.peqnp.satisfiability;
 
-class Watcher {
-    Clause clause;
-    Literal blocker;
+interface RestartPolicy {
 
-    Watcher(Clause cr, Literal p) {
-        this.clause = cr;
-        this.blocker = p;
-    }
+    void start();
 
-    @Override
-    public boolean equals(Object obj) {
-        if (!(obj instanceof Watcher)) {
-            return false;
-        }
-        Watcher o = (Watcher) obj;
-        return clause.equals(o.clause);
-    }
+    void conflict(int lbd, int trailSize);
+
+    boolean restart();
 }
@@ -8,60 +8,121 @@
 
 package science.peqnp.satisfiability;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Serializable;
-import java.util.Comparator;
+import java.io.PrintStream;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 public class Solver {
 
     private static final boolean RND_INIT_ACT_DEFAULT = true;
     private static final boolean BIAS_RESTART_DEFAULT = true;
+    private static final boolean ELIMINATE_DEFAULT = true;
+    private static final boolean SUBSUME_DEFAULT = true;
+    private static final boolean PROBE_DEFAULT = true;
+    private static final boolean VIVIFY_DEFAULT = true;
+    private static final boolean TARGET_PHASE_DEFAULT = true;
+    private static final boolean REPHASE_DEFAULT = true;
+    private static final boolean WALK_DEFAULT = true;
 
     private static final int PHASE_SAVING_DEFAULT = 2;
+    private static final int THREADS_DEFAULT = 1;
     private static final int RESTART_FIRST_DEFAULT = 1000;
+    private static final int LUBY_UNIT_DEFAULT = 100;
+    private static final int REDUCE_FIRST_DEFAULT = 2000;
+    private static final int REDUCE_INC_DEFAULT = 300;
+    private static final int CORE_LBD_DEFAULT = 2;
+    private static final int MID_LBD_DEFAULT = 6;
+    private static final int CHRONO_DEFAULT = -1;
+    private static final int REPHASE_FIRST_DEFAULT = 1000;
+    private static final int REPHASE_INC_DEFAULT = 1000;
+    private static final int REPHASE_ORIGINAL = 0;
+    private static final int REPHASE_INVERTED = 1;
+    private static final int REPHASE_BEST = 2;
+    private static final int REPHASE_RANDOM = 3;
+    private static final int REPHASE_WALK = 4;
+    private static final int[] REPHASE_CYCLE = {REPHASE_BEST, REPHASE_WALK, REPHASE_ORIGINAL, REPHASE_BEST, REPHASE_WALK, REPHASE_INVERTED, REPHASE_BEST, REPHASE_WALK, REPHASE_RANDOM};
+    private static final int SUBSUME_INTERVAL_DEFAULT = 20000;
+    private static final int SUBSUME_LOAD_EFFORT = 10;
+    private static final long SUBSUME_MIN_EFFORT = 1000000;
+    private static final int PROBE_INTERVAL_DEFAULT = 20000;
+    private static final long PROBE_MIN_EFFORT = 1000000;
+    private static final int VIVIFY_INTERVAL_DEFAULT = 5000;
+    private static final int SHARE_LBD_DEFAULT = 2;
+    private static final int LOOKAHEAD_CANDIDATES = 20;
+    private static final long WALK_MIN_EFFORT = 100000;
 
     private static final double VAR_DECAY_DEFAULT = 0.95f;
     private static final double CLAUSE_DECAY_DEFAULT = 0.999f;
     private static final double RANDOM_VAR_FREQ_DEFAULT = 0;
     private static final double RESTART_INC_DEFAULT = 1;
-
-    private Vector<Ternary> assigns = new Vector<>();
-    private Vector<Boolean> polarity = new Vector<>();
-    private Vector<Boolean> decision = new Vector<>();
+    private static final double GARBAGE_FRAC_DEFAULT = 0.20;
+    private static final double SUBSUME_EFFORT_DEFAULT = 0.5;
+    private static final double PROBE_EFFORT_DEFAULT = 0.1;
+    private static final double VIVIFY_EFFORT_DEFAULT = 0.1;
+    private static final double WALK_EFFORT_DEFAULT = 0.2;
+
+    private static final IntVec.Order LITERAL_ORDER = (x, y) -> x < y;
+
+    private ByteVec assigns = new ByteVec();
+    private BoolVec polarity = new BoolVec();
+    private ByteVec target = new ByteVec();
+    private ByteVec best = new ByteVec();
+    private BoolVec decision = new BoolVec();
     private Vector<Literal> trail = new Vector<>();
-    private Vector<Integer> trailLimit = new Vector<>();
-    private Vector<Block> block = new Vector<>();
+    private IntVec trailLimit = new IntVec();
+    private IntVec level = new IntVec();
+    private IntVec permanentDiff = new IntVec();
+    private IntVec reason = new IntVec();
     private Vector<Literal> learntClause = new Vector<>();
     private Vector<Ternary> model = new Vector<>();
     private Vector<Literal> conflict = new Vector<>();
-    private Vector<Clause> clauses = new Vector<>();
-    private Vector<Clause> learnt = new Vector<>();
-    private Vector<Double> activity = new Vector<>();
+    private IntVec clauses = new IntVec();
+    private IntVec learnt = new IntVec();
+    private DoubleVec activity = new DoubleVec();
     private Vector<Literal> assumptions = new Vector<>();
-    private Vector<Boolean> seen = new Vector<>();
+    private BoolVec seen = new BoolVec();
     private Vector<Literal> analyzeStack = new Vector<>();
     private Vector<Literal> analyzeToClear = new Vector<>();
-    private String cnfFile;
-    private Watchers watches = new Watchers();
-    private Heap orderedHeap = new Heap(new Heap.Order(activity));
-    private ReduceDB reduceDB = new ReduceDB();
+    private Vector<Literal> keep = new Vector<>();
+    private IntVec addTmp = new IntVec();
+    private IntVec probeMarks = new IntVec();
+    private IntVec probeUnits = new IntVec();
+    private IntVec vivifyLiterals = new IntVec();
+    private IntVec vivifyCandidates = new IntVec();
+    private PrintStream out = System.out;
+    private String cache;
+    private ClauseAllocator ca = new ClauseAllocator();
+    private Watchers watches = new Watchers(ca);
+    private Watchers binaries = new Watchers(ca);
+    private DecisionHeuristic order = new VsidsHeuristic(activity, assigns, decision);
+    private ReduceDB reduceDB = new ReduceDB(ca);
+    private Eliminator eliminator = new Eliminator(this, ca);
+    private Subsumer subsumer = new Subsumer(this, ca);
+    private Equivalences equivalences = new Equivalences(this, ca);
+    private Walker walker = new Walker(this, ca);
+    private Exchange.Channel channel;
+    private IntVec shareTmp = new IntVec();
+    private IntVec apiTmp = new IntVec();
     private Random random = new Random();
-    private boolean biasRestart;
+    private RestartPolicy restartPolicy;
     private boolean randomPool;
     private boolean randomInitActivity;
     private boolean ok;
-    private boolean asyncInterrupt;
+    private volatile boolean asyncInterrupt;
     private boolean removeSatisfied;
-    private int conflictCounter;
+    private boolean eliminate;
+    private boolean subsume;
+    private boolean probe;
+    private boolean vivify;
+    private boolean targetPhase;
+    private boolean rephase;
+    private boolean walk;
+    private boolean incremental;
     private int phaseSaving;
-    private int restartFirst;
-    private int learntSizeAdjustStartConflict;
+    private int threads;
     private int head;
     private int simplifyDBAssigns;
-    private int learntSizeAdjustCnt;
     private int clausesLiterals;
     private int learntLiterals;
     private int simplifyDBPropositions;
@@ -70,43 +131,71 @@ public class Solver {
     private int propagation;
     private int conflicts;
     private int cursor;
-    private double maxLearnt;
-    private double learntSizeAdjustConflict;
-    private double learntSizeAdjustIncrement;
-    private double learntSizeIncrement;
+    private int reduceFirst;
+    private int reduceIncrement;
+    private int reductions;
+    private int nextReduce;
+    private int coreLbd;
+    private int midLbd;
+    private int lbdStamp;
+    private int chrono;
+    private int conflictLevel;
+    private int assertingLevel;
+    private boolean conflictUnique;
+    private int targetAssigned;
+    private int bestAssigned;
+    private int rephases;
+    private int nextRephase;
+    private int subsumeInterval;
+    private int nextSubsume;
+    private int subsumePropagation;
+    private int probeInterval;
+    private int nextProbe;
+    private int probePropagation;
+    private int probeNext;
+    private int probeStamp;
+    private int probed;
+    private int vivifyInterval;
+    private int nextVivify;
+    private int vivifyPropagation;
+    private int walkPropagation;
     private double variableDecay;
     private double clauseDecay;
     private double randomVariableFrequency;
-    private double restartIncrement;
     private double clauseDecayIncrement;
+    private double garbageFraction;
+    private double subsumeEffort;
+    private double probeEffort;
+    private double vivifyEffort;
+    private double walkEffort;
     private double variableActivityIncrement;
 
     public Solver() {
         cursor = Integer.MAX_VALUE;
-    }
-
-    private static double activation(double a, double x) {
-        if (a < 0) {
-            return (1.0 / (1 - a * (a + x)));
-        } else {
-            return Math.exp(a * x);
-        }
+        loadDefault();
     }
 
     private void loadDefault() {
         ok = true;
         randomPool = false;
         removeSatisfied = true;
+        eliminate = ELIMINATE_DEFAULT;
+        subsume = SUBSUME_DEFAULT;
+        probe = PROBE_DEFAULT;
+        vivify = VIVIFY_DEFAULT;
+        targetPhase = TARGET_PHASE_DEFAULT;
+        rephase = REPHASE_DEFAULT;
+        walk = WALK_DEFAULT;
         asyncInterrupt = false;
 
         variableDecay = VAR_DECAY_DEFAULT;
         clauseDecay = CLAUSE_DECAY_DEFAULT;
         randomVariableFrequency = RANDOM_VAR_FREQ_DEFAULT;
-        biasRestart = BIAS_RESTART_DEFAULT;
         phaseSaving = PHASE_SAVING_DEFAULT;
+        threads = THREADS_DEFAULT;
         randomInitActivity = RND_INIT_ACT_DEFAULT;
-        restartFirst = RESTART_FIRST_DEFAULT;
-        restartIncrement = RESTART_INC_DEFAULT;
+        restartPolicy = new GeometricRestart(RESTART_FIRST_DEFAULT, RESTART_INC_DEFAULT, BIAS_RESTART_DEFAULT);
+        garbageFraction = GARBAGE_FRAC_DEFAULT;
 
         clauseDecayIncrement = 1;
         variableActivityIncrement = 1;
@@ -115,25 +204,136 @@ public class Solver {
         simplifyDBPropositions = 0;
         conflictBudget = -1;
         propagationBudget = -1;
-        learntSizeIncrement = 1.5f;
-        learntSizeAdjustIncrement = 1.5f;
-        learntSizeAdjustStartConflict = 100;
+        reduceFirst = REDUCE_FIRST_DEFAULT;
+        reduceIncrement = REDUCE_INC_DEFAULT;
+        coreLbd = CORE_LBD_DEFAULT;
+        midLbd = MID_LBD_DEFAULT;
+        chrono = CHRONO_DEFAULT;
+        nextRephase = REPHASE_FIRST_DEFAULT;
+        subsumeInterval = SUBSUME_INTERVAL_DEFAULT;
+        subsumeEffort = SUBSUME_EFFORT_DEFAULT;
+        nextSubsume = subsumeInterval;
+        probeInterval = PROBE_INTERVAL_DEFAULT;
+        probeEffort = PROBE_EFFORT_DEFAULT;
+        vivifyInterval = VIVIFY_INTERVAL_DEFAULT;
+        vivifyEffort = VIVIFY_EFFORT_DEFAULT;
+        nextVivify = vivifyInterval;
+        walkEffort = WALK_EFFORT_DEFAULT;
     }
 
-    private Clause reason(Variable variable) {
-        return block.get(variable.value()).reason;
+    private static int binaryReason(int other) {
+        return -2 - other;
     }
 
-    private int level(int backtrackLevel) {
-        return block.get(backtrackLevel).level;
+    private static boolean isBinaryReason(int reason) {
+        return reason < ClauseAllocator.UNDEF;
     }
 
-    private void insertVariableOrdered(Variable variable) {
-        if (!orderedHeap.inHeap(variable.value()) && decision.get(variable.value())) {
-            orderedHeap.insert(variable.value());
+    private int reason(Variable variable) {
+        return reason.get(variable.value());
+    }
+
+    private int level(int variable) {
+        return level.get(variable);
+    }
+
+    public void restart(String policy) {
+        switch (policy) {
+            case "geometric":
+                restartPolicy = new GeometricRestart(RESTART_FIRST_DEFAULT, RESTART_INC_DEFAULT, BIAS_RESTART_DEFAULT);
+                break;
+            case "luby":
+                restartPolicy = new LubyRestart(LUBY_UNIT_DEFAULT);
+                break;
+            case "glucose":
+                restartPolicy = new GlucoseRestart();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown restart policy: " + policy);
         }
     }
 
+    public void eliminate(boolean enabled) {
+        eliminate = enabled;
+    }
+
+    public void subsume(boolean enabled) {
+        subsume = enabled;
+    }
+
+    public void probe(boolean enabled) {
+        probe = enabled;
+    }
+
+    public void vivify(boolean enabled) {
+        vivify = enabled;
+    }
+
+    public void chrono(int levels) {
+        chrono = levels;
+    }
+
+    public void target(boolean enabled) {
+        targetPhase = enabled;
+    }
+
+    public void rephase(boolean enabled) {
+        rephase = enabled;
+    }
+
+    public void walk(boolean enabled) {
+        walk = enabled;
+    }
+
+    public void seed(long seed) {
+        random.setSeed(seed);
+    }
+
+    public void variableDecay(double decay) {
+        variableDecay = decay;
+    }
+
+    public void phaseSaving(int level) {
+        phaseSaving = level;
+    }
+
+    public void randomVariableFrequency(double frequency) {
+        randomVariableFrequency = frequency;
+    }
+
+    public void threads(int threads) {
+        this.threads = threads;
+    }
+
+    public void cache(String directory) {
+        cache = directory;
+    }
+
+    public void output(PrintStream out) {
+        this.out = out;
+    }
+
+    void share(Exchange.Channel channel) {
+        this.channel = channel;
+    }
+
+    void incremental(boolean enabled) {
+        incremental = enabled;
+    }
+
+    public void interrupt() {
+        asyncInterrupt = true;
+    }
+
+    public void vmtf(boolean enabled) {
+        order = enabled ? new VmtfHeuristic(assigns, decision) : new VsidsHeuristic(activity, assigns, decision);
+        order.newVariables(0, numberOfVariables());
+    }
+
+    private void insertVariableOrdered(Variable variable) {
+        order.insert(variable.value());
+    }
+
     private void variableDecayActivity() {
         variableActivityIncrement *= Math.sinh(variableDecay);
     }
@@ -149,29 +349,72 @@ public class Solver {
                 activity.set(j, (activity.get(j) / numberOfVariables()));
             variableActivityIncrement *= 1.0 / numberOfVariables();
         }
-        if (orderedHeap.inHeap(i)) {
-            orderedHeap.decrease(i);
-        }
+        order.bump(i);
     }
 
     private void clauseDecayActivity() {
         clauseDecayIncrement *= Math.sinh(clauseDecay);
     }
 
-    private void clauseBumpActivity(Clause cls) {
-        if (cls.activity((cls.activity() + clauseDecayIncrement)) >=
+    private void clauseBumpActivity(int cls) {
+        if (ca.activity(cls, ca.activity(cls) + clauseDecayIncrement) >=
                 numberOfClauses()) {
             for (int i = 0; i < learnt.size(); i++) {
-                learnt.get(i).activity((learnt.get(i).activity() / numberOfClauses()));
+                ca.activity(learnt.get(i), ca.activity(learnt.get(i)) / numberOfClauses());
             }
             clauseDecayIncrement *= (1.0 / numberOfClauses());
         }
     }
 
-    private boolean locked(Clause cls) {
-        Clause reason = reason(Variable.valueOf(cls.get(0).variable()));
-        return value(cls.get(0)) == Ternary.TRUE && reason != null &&
-                reason.equals(cls);
+    private int computeLbd(Vector<Literal> literals) {
+        lbdStamp++;
+        int lbd = 0;
+        for (int i = 0; i < literals.size(); i++) {
+            int l = level(literals.get(i).variable());
+            if (permanentDiff.get(l) != lbdStamp) {
+                permanentDiff.set(l, lbdStamp);
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    private int computeLbd(int cls) {
+        lbdStamp++;
+        int lbd = 0;
+        for (int i = 0; i < ca.size(cls); i++) {
+            int l = level(ca.get(cls, i) >> 1);
+            if (permanentDiff.get(l) != lbdStamp) {
+                permanentDiff.set(l, lbdStamp);
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    private int tier(int lbd) {
+        return lbd <= coreLbd ? ClauseAllocator.CORE : lbd <= midLbd ? ClauseAllocator.MID : ClauseAllocator.LOCAL;
+    }
+
+    private void updateLbd(int cls) {
+        ca.used(cls, true);
+        if (ca.tier(cls) != ClauseAllocator.CORE) {
+            int lbd = computeLbd(cls);
+            if (lbd < ca.lbd(cls)) {
+                ca.lbd(cls, lbd);
+                ca.tier(cls, Math.min(ca.tier(cls), tier(lbd)));
+            }
+        }
+    }
+
+    private boolean locked(int cls) {
+        int first = ca.get(cls, 0);
+        if (ca.size(cls) == 2) {
+            int second = ca.get(cls, 1);
+            return value(first) == Ternary.TRUE && reason(Variable.valueOf(first >> 1)) == binaryReason(second) ||
+                    value(second) == Ternary.TRUE && reason(Variable.valueOf(second >> 1)) == binaryReason(first);
+        }
+        return value(first) == Ternary.TRUE && reason(Variable.valueOf(first >> 1)) == cls;
     }
 
     private void newDecisionLevel() {
@@ -187,11 +430,15 @@ public class Solver {
     }
 
     private Ternary value(Variable variable) {
-        return assigns.get(variable.value());
+        return Ternary.valueOf(assigns.get(variable.value()));
     }
 
     private Ternary value(Literal literal) {
-        return (assigns.get(literal.variable())).xor(literal.sign());
+        return value(literal.value());
+    }
+
+    Ternary value(int literal) {
+        return Ternary.valueOf(assigns.get(literal >> 1) ^ (literal & 1));
     }
 
     private int nAssigns() {
@@ -202,14 +449,23 @@ public class Solver {
         return clauses.size();
     }
 
-    private int numberOfVariables() {
-        return block.size();
+    int numberOfVariables() {
+        return assigns.size();
     }
 
-    private void setDecisionVariable(Variable variable) {
-        int i = variable.value();
-        decision.set(i, true);
-        insertVariableOrdered(variable);
+    boolean okay() {
+        return ok;
+    }
+
+    boolean isDecision(int variable) {
+        return decision.get(variable);
+    }
+
+    void setDecisionVariable(int variable, boolean b) {
+        decision.set(variable, b);
+        if (b) {
+            order.insert(variable);
+        }
     }
 
     private boolean withinBudget() {
@@ -219,71 +475,141 @@ public class Solver {
     }
 
     private void newVariable() {
+        newVariables(numberOfVariables() + 1);
+    }
+
+    private void newVariables(int variables) {
         int len = numberOfVariables();
-        Variable variable = Variable.valueOf(len);
+        if (variables <= len) {
+            return;
+        }
 
-        watches.init(Literal.valueOf(len, true));
-        assigns.push(Ternary.UNDEF);
-        block.push(null);
+        watches.init(Literal.valueOf(variables - 1, true).value());
+        binaries.init(Literal.valueOf(variables - 1, true).value());
+        assigns.growTo(variables, Ternary.UNDEF.code());
+        level.growTo(variables);
+        permanentDiff.growTo(variables + 1);
+        reason.growTo(variables, ClauseAllocator.UNDEF);
 
-        activity.push((randomInitActivity ? Math.sinh(random.nextDouble()) : 0.0));
-        seen.push(false);
-        polarity.push(true);
-        decision.push(true);
-        trail.capacity(len + 1);
-        setDecisionVariable(variable);
+        activity.capacity(variables);
+        for (int v = len; v < variables; v++) {
+            activity.push((randomInitActivity ? Math.sinh(random.nextDouble()) : 0.0));
+        }
+        seen.growTo(variables);
+        polarity.growTo(variables, true);
+        target.growTo(variables, Ternary.UNDEF.code());
+        best.growTo(variables, Ternary.UNDEF.code());
+        decision.growTo(variables, true);
+        trail.capacity(variables);
+        order.newVariables(len, variables);
+    }
+
+    int addClause(IntVec literals) {
+        return addClause(literals, false);
     }
 
-    private void addClause(Vector<Literal> literals) {
+    int addClause(IntVec literals, boolean learnt) {
+        return addClause(literals, learnt, true);
+    }
+
+    private int addClause(IntVec literals, boolean learnt, boolean attach) {
         if (!ok)
-            return;
+            return ClauseAllocator.UNDEF;
 
-        Literal literal;
+        literals.sort(LITERAL_ORDER);
+        int literal;
         int i, j;
-        for (i = j = 0, literal = Literal.UNDEF; i < literals.size(); i++) {
-            int v = literals.get(i).variable();
-            while (v >= numberOfVariables()) {
+        for (i = j = 0, literal = Literal.UNDEF.value(); i < literals.size(); i++) {
+            int l = literals.get(i);
+            while (l >> 1 >= numberOfVariables()) {
                 newVariable();
             }
-            if (value(literals.get(i)) == Ternary.TRUE || literals.get(i) == literal.not()) {
-                return;
-            } else if (value(literals.get(i)) != Ternary.FALSE && literals.get(i) != literal) {
-                literals.set(j++, literal = literals.get(i));
+            if (value(l) == Ternary.TRUE || l == (literal ^ 1)) {
+                return ClauseAllocator.UNDEF;
+            } else if (value(l) != Ternary.FALSE && l != literal) {
+                literals.set(j++, literal = l);
             }
         }
         literals.shrink(i - j);
 
         if (literals.size() == 0) {
             ok = false;
-            return;
+            return ClauseAllocator.UNDEF;
         } else if (literals.size() == 1) {
-            uncheckedEnqueue(literals.get(0));
-            ok = (propagate() == null);
-            return;
+            uncheckedEnqueue(Literal.valueOf(literals.get(0)));
+            if (attach) {
+                ok = (propagate() == ClauseAllocator.UNDEF);
+            }
+            return ClauseAllocator.UNDEF;
+        } else {
+            int cr = ca.alloc(literals, learnt);
+            (learnt ? this.learnt : clauses).push(cr);
+            if (attach) {
+                attachClause(cr);
+            }
+            return cr;
+        }
+    }
+
+    int strengthenClause(int cls, int literal) {
+        addTmp.clear();
+        for (int i = 0; i < ca.size(cls); i++) {
+            if (ca.get(cls, i) != literal) {
+                addTmp.push(ca.get(cls, i));
+            }
+        }
+        return replaceClause(cls, addTmp);
+    }
+
+    private int replaceClause(int cls, IntVec literals) {
+        boolean learnt = ca.learnt(cls);
+        int lbd = ca.lbd(cls);
+        removeClause(cls);
+        int cr = addClause(literals, learnt);
+        if (cr != ClauseAllocator.UNDEF && learnt) {
+            lbd = Math.min(lbd, ca.size(cr));
+            ca.lbd(cr, lbd);
+            ca.tier(cr, tier(lbd));
+        }
+        return cr;
+    }
+
+    private void attachClause(int cls) {
+        int c0 = ca.get(cls, 0);
+        int c1 = ca.get(cls, 1);
+        Watchers ws = ca.size(cls) == 2 ? binaries : watches;
+        ws.push(c0 ^ 1, cls, c1);
+        ws.push(c1 ^ 1, cls, c0);
+        if (ca.learnt(cls)) {
+            learntLiterals += ca.size(cls);
         } else {
-            Clause cr = new Clause(literals, false);
-            clauses.push(cr);
-            attachClause(cr);
+            clausesLiterals += ca.size(cls);
         }
     }
 
-    private void attachClause(Clause cls) {
-        watches.get(cls.get(0).not()).push(new Watcher(cls, cls.get(1)));
-        watches.get(cls.get(1).not()).push(new Watcher(cls, cls.get(0)));
-        if (cls.learnt()) {
-            learntLiterals += cls.size();
+    private void detachClause(int cls) {
+        Watchers ws = ca.size(cls) == 2 ? binaries : watches;
+        ws.smudge(ca.get(cls, 0) ^ 1);
+        ws.smudge(ca.get(cls, 1) ^ 1);
+        if (ca.learnt(cls)) {
+            learntLiterals -= ca.size(cls);
         } else {
-            clausesLiterals += cls.size();
+            clausesLiterals -= ca.size(cls);
         }
     }
 
-    private void removeClause(Clause clause) {
-        clause.mark(1);
+    void removeClause(int clause) {
+        detachClause(clause);
+        if (ca.size(clause) > 2 && locked(clause)) {
+            reason.set(ca.get(clause, 0) >> 1, ClauseAllocator.UNDEF);
+        }
+        ca.mark(clause, 1);
+        ca.free(clause);
     }
 
-    private boolean isSatisfied(Clause cls) {
-        for (Literal lit : cls) {
-            if (value(lit) == Ternary.TRUE) {
+    private boolean isSatisfied(int cls) {
+        for (int i = 0; i < ca.size(cls); i++) {
+            if (value(Literal.valueOf(ca.get(cls, i))) == Ternary.TRUE) {
                 return true;
             }
         }
@@ -292,9 +618,14 @@ public class Solver {
 
     private void cancelUntil(int level) {
         if (decisionLevel() > level) {
+            keep.clear();
             for (int c = trail.size() - 1; c >= trailLimit.get(level); c--) {
                 int x = trail.get(c).variable();
-                assigns.set(x, Ternary.UNDEF);
+                if (level(x) <= level) {
+                    keep.push(trail.get(c));
+                    continue;
+                }
+                assigns.set(x, Ternary.UNDEF.code());
                 if ((phaseSaving > 1) || ((phaseSaving == 1) && c > trailLimit.last())) {
                     polarity.set(x, trail.get(c).sign());
                 }
@@ -303,32 +634,138 @@ public class Solver {
             head = trailLimit.get(level);
             trail.shrink(trail.size() - trailLimit.get(level));
             trailLimit.shrink(trailLimit.size() - level);
+            for (int c = keep.size() - 1; c >= 0; c--) {
+                trail.push(keep.get(c));
+            }
         }
     }
 
     private Literal pickBranchLit() {
         Variable next = Variable.UNDEF;
-        if (random.nextDouble() < randomVariableFrequency && !orderedHeap.empty()) {
-            next = Variable.valueOf(orderedHeap.get(random.nextInt(orderedHeap.size())));
+        if (random.nextDouble() < randomVariableFrequency) {
+            next = Variable.valueOf(order.random(random));
         }
 
-        while (next == Variable.UNDEF || value(next) != Ternary.UNDEF || !decision.get(next.value()))
-            if (orderedHeap.empty()) {
-                next = Variable.UNDEF;
-                break;
-            } else {
-                next = Variable.valueOf(orderedHeap.removeMin());
-            }
+        if (next == Variable.UNDEF || value(next) != Ternary.UNDEF || !decision.get(next.value())) {
+            next = Variable.valueOf(order.next());
+        }
 
         return next == Variable.UNDEF
                 ? Literal.UNDEF
                 :
 
                 Literal.valueOf(next.value(), randomPool ? random.nextBoolean()
-                        : polarity.get(next.value()));
+                        : phase(next.value()));
+    }
+
+    private boolean phase(int variable) {
+        if (targetPhase && target.get(variable) != Ternary.UNDEF.code()) {
+            return target.get(variable) == Ternary.FALSE.code();
+        }
+        return polarity.get(variable);
+    }
+
+    private void savePhases(ByteVec phases, int size) {
+        for (int i = 0; i < size; i++) {
+            int v = trail.get(i).variable();
+            phases.set(v, assigns.get(v));
+        }
+    }
+
+    private void updatePhases() {
+        int consistent = trailLimit.get(conflictLevel - 1);
+        if (consistent > targetAssigned) {
+            savePhases(target, consistent);
+            targetAssigned = consistent;
+        }
+        if (consistent > bestAssigned) {
+            savePhases(best, consistent);
+            bestAssigned = consistent;
+        }
+    }
+
+    private boolean rephase() {
+        int kind = REPHASE_CYCLE[rephases++ % REPHASE_CYCLE.length];
+        if (kind == REPHASE_WALK && walk && assumptions.isEmpty() && walk()) {
+            return true;
+        }
+        for (int v = 0; v < numberOfVariables(); v++) {
+            switch (kind) {
+                case REPHASE_ORIGINAL:
+                    polarity.set(v, true);
+                    break;
+                case REPHASE_INVERTED:
+                    polarity.set(v, false);
+                    break;
+                case REPHASE_BEST:
+                    if (best.get(v) != Ternary.UNDEF.code()) {
+                        polarity.set(v, best.get(v) == Ternary.FALSE.code());
+                    }
+                    break;
+                case REPHASE_RANDOM:
+                    polarity.set(v, random.nextBoolean());
+                    break;
+            }
+            target.set(v, Ternary.UNDEF.code());
+        }
+        targetAssigned = 0;
+        if (kind == REPHASE_BEST) {
+            bestAssigned = 0;
+        }
+        nextRephase = conflicts + REPHASE_INC_DEFAULT * rephases;
+        return false;
     }
 
-    private int analyze(Clause conflict, Vector<Literal> outLearnt) {
+    private boolean walk() {
+        long budget = Math.max(WALK_MIN_EFFORT, (long) ((propagation - walkPropagation) * walkEffort));
+        walkPropagation = propagation;
+        return walker.walk(clauses, polarity, random, budget);
+    }
+
+    private void export(Vector<Literal> clause, int lbd) {
+        channel.conflict();
+        if (clause.size() <= 2 || lbd <= SHARE_LBD_DEFAULT) {
+            shareTmp.clear();
+            for (int i = 0; i < clause.size(); i++) {
+                shareTmp.push(clause.get(i).value());
+            }
+            channel.export(shareTmp, lbd);
+        }
+    }
+
+    private boolean importClauses() {
+        for (int lbd = channel.next(shareTmp); lbd >= 0 && ok; lbd = channel.next(shareTmp)) {
+            boolean active = true;
+            for (int i = 0; i < shareTmp.size() && active; i++) {
+                int v = shareTmp.get(i) >> 1;
+                active = v < numberOfVariables() && isDecision(v);
+            }
+            if (!active) {
+                continue;
+            }
+            int assigned = trail.size();
+            int size = shareTmp.size();
+            int cr = addClause(shareTmp, true);
+            channel.imported();
+            if (cr != ClauseAllocator.UNDEF) {
+                ca.lbd(cr, Math.min(lbd, size));
+                ca.tier(cr, tier(Math.min(lbd, size)));
+                ca.imported(cr, true);
+            } else if (trail.size() > assigned) {
+                channel.useful();
+            }
+        }
+        return !ok;
+    }
+
+    private void useful(int cls) {
+        if (ca.imported(cls)) {
+            ca.imported(cls, false);
+            channel.useful();
+        }
+    }
+
+    private int analyze(int conflict, Vector<Literal> outLearnt) {
         int pathC = 0;
         Literal p = Literal.UNDEF;
 
@@ -336,33 +773,34 @@ public class Solver {
         int index = trail.size() - 1;
 
         do {
-            Clause cls = conflict;
+            int cls = conflict;
 
-            if (cls.learnt()) {
-                clauseBumpActivity(cls);
-            }
-
-            for (int j = (p == Literal.UNDEF) ? 0 : 1; j < cls.size(); j++) {
-                Literal q = cls.get(j);
-
-                if (!seen.get(q.variable()) && level(q.variable()) > 0) {
-                    variableBumpActivity(Variable.valueOf(q.variable()));
-                    seen.set(q.variable(), true);
-                    if (level(q.variable()) >= decisionLevel()) {
-                        pathC++;
-                    } else {
-                        outLearnt.push(q);
+            if (isBinaryReason(cls)) {
+                pathC += analyzeLiteral(Literal.valueOf(binaryReason(cls)), outLearnt);
+            } else {
+                if (ca.learnt(cls)) {
+                    clauseBumpActivity(cls);
+                    updateLbd(cls);
+                    if (channel != null) {
+                        useful(cls);
                     }
                 }
+
+                for (int j = (p == Literal.UNDEF) ? 0 : 1; j < ca.size(cls); j++) {
+                    pathC += analyzeLiteral(Literal.valueOf(ca.get(cls, j)), outLearnt);
+                }
             }
 
-            while (!seen.get(trail.get(index--).variable())) ;
-            p = trail.get(index + 1);
+            do {
+                while (!seen.get(trail.get(index--).variable())) ;
+                p = trail.get(index + 1);
+            } while (level(p.variable()) < conflictLevel);
             conflict = reason(Variable.valueOf(p.variable()));
             seen.set(p.variable(), false);
             pathC--;
 
         } while (pathC > 0);
+        order.flush();
         outLearnt.set(0, p.not());
 
         int i, j;
@@ -374,7 +812,7 @@ public class Solver {
         }
 
         for (i = j = 1; i < outLearnt.size(); i++) {
-            if (reason(Variable.valueOf(outLearnt.get(i).variable())) == null || !litRedundant(outLearnt.get(i), abstract_level)) {
+            if (reason(Variable.valueOf(outLearnt.get(i).variable())) == ClauseAllocator.UNDEF || !litRedundant(outLearnt.get(i), abstract_level)) {
                 outLearnt.set(j++, outLearnt.get(i));
             }
         }
@@ -404,18 +842,31 @@ public class Solver {
         return outBtlevel;
     }
 
+    private int analyzeLiteral(Literal q, Vector<Literal> outLearnt) {
+        if (!seen.get(q.variable()) && level(q.variable()) > 0) {
+            variableBumpActivity(Variable.valueOf(q.variable()));
+            seen.set(q.variable(), true);
+            if (level(q.variable()) >= conflictLevel) {
+                return 1;
+            }
+            outLearnt.push(q);
+        }
+        return 0;
+    }
+
     private boolean litRedundant(Literal p, int abstract_levels) {
         analyzeStack.clear();
         analyzeStack.push(p);
         int top = analyzeToClear.size();
         while (analyzeStack.size() > 0) {
-            Clause c = reason(Variable.valueOf(analyzeStack.last().variable()));
+            int c = reason(Variable.valueOf(analyzeStack.last().variable()));
             analyzeStack.pop();
 
-            for (int i = 1; i < c.size(); i++) {
-                Literal pp = c.get(i);
+            int size = isBinaryReason(c) ? 2 : ca.size(c);
+            for (int i = 1; i < size; i++) {
+                Literal pp = Literal.valueOf(isBinaryReason(c) ? binaryReason(c) : ca.get(c, i));
                 if (!seen.get(pp.variable()) && level(pp.variable()) > 0) {
-                    if (reason(Variable.valueOf(pp.variable())) != null && (abstractLevel(pp.variable()) & abstract_levels) != 0) {
+                    if (reason(Variable.valueOf(pp.variable())) != ClauseAllocator.UNDEF && (abstractLevel(pp.variable()) & abstract_levels) != 0) {
                         seen.set(pp.variable(), true);
                         analyzeStack.push(pp);
                         analyzeToClear.push(pp);
@@ -445,14 +896,19 @@ public class Solver {
         for (int i = trail.size() - 1; i >= trailLimit.get(0); i--) {
             Variable x = Variable.valueOf(trail.get(i).variable());
             if (seen.get(x.value())) {
-                if (reason(x) == null) {
+                if (reason(x) == ClauseAllocator.UNDEF) {
                     assert (level(x.value()) > 0);
                     outConflict.push(trail.get(i).not());
                 } else {
-                    Clause c = reason(x);
-                    for (int j = 1; j < c.size(); j++)
-                        if (level(c.get(j).variable()) > 0)
-                            seen.set(c.get(j).variable(), true);
+                    int c = reason(x);
+                    if (isBinaryReason(c)) {
+                        if (level(binaryReason(c) >> 1) > 0)
+                            seen.set(binaryReason(c) >> 1, true);
+                    } else {
+                        for (int j = 1; j < ca.size(c); j++)
+                            if (level(ca.get(c, j) >> 1) > 0)
+                                seen.set(ca.get(c, j) >> 1, true);
+                    }
                 }
                 seen.set(x.value(), false);
             }
@@ -461,71 +917,116 @@ public class Solver {
         seen.set(p.variable(), false);
     }
 
-    private void uncheckedEnqueue(Literal p, Clause from) {
-        assigns.set(p.variable(), Ternary.valueOf(!p.sign()));
-        block.set(p.variable(), Block.makeBlock(from, decisionLevel()));
+    private void uncheckedEnqueue(Literal p, int level, int from) {
+        assigns.set(p.variable(), Ternary.valueOf(!p.sign()).code());
+        reason.set(p.variable(), from);
+        this.level.set(p.variable(), level);
         trail.push(p);
     }
 
+    private void uncheckedEnqueue(Literal p, int from) {
+        uncheckedEnqueue(p, decisionLevel(), from);
+    }
+
     private void uncheckedEnqueue(Literal p) {
-        uncheckedEnqueue(p, null);
+        uncheckedEnqueue(p, ClauseAllocator.UNDEF);
     }
 
-    private Clause propagate() {
-        Clause confl = null;
+    private int propagate() {
+        int confl = ClauseAllocator.UNDEF;
         watches.cleanAll();
+        binaries.cleanAll();
 
         int numProps = 0;
+        L0:
         while (head < trail.size()) {
-            Literal p = trail.get(head++);
-            Vector<Watcher> ws = watches.get(p);
+            int p = trail.get(head++).value();
+            int false_lit = p ^ 1;
+            int currentLevel = level(p >> 1);
             numProps++;
 
+            IntVec bs = binaries.get(p);
+            for (int k = 0, size = bs.size(); k < size; k += 2) {
+                int implied = bs.get(k + 1);
+                Ternary v = value(implied);
+                if (v == Ternary.FALSE) {
+                    confl = bs.get(k);
+                    head = trail.size();
+                    break L0;
+                } else if (v == Ternary.UNDEF) {
+                    if (channel != null) {
+                        useful(bs.get(k));
+                    }
+                    uncheckedEnqueue(Literal.valueOf(implied), currentLevel, binaryReason(false_lit));
+                }
+            }
+
+            IntVec ws = watches.get(p);
             int i = 0, j = 0, size = ws.size();
             L:
             while (i < size) {
 
-                Literal blocker = ws.get(i).blocker;
+                int blocker = ws.get(i + 1);
                 if (value(blocker) == Ternary.TRUE) {
+                    ws.set(j++, ws.get(i++));
                     ws.set(j++, ws.get(i++));
                     continue;
                 }
 
-                Clause c = ws.get(i).clause;
-                Literal false_lit = p.not();
-                if (c.get(0) == false_lit) {
-                    c.set(0, c.get(1));
-                    c.set(1, false_lit);
+                int c = ws.get(i);
+                if (ca.get(c, 0) == false_lit) {
+                    ca.set(c, 0, ca.get(c, 1));
+                    ca.set(c, 1, false_lit);
                 }
-                assert c.get(1) == false_lit;
-                i++;
+                assert ca.get(c, 1) == false_lit;
+                i += 2;
 
-                Literal first = c.get(0);
-                Watcher w = new Watcher(c, first);
+                int first = ca.get(c, 0);
                 if (first != blocker && value(first) == Ternary.TRUE) {
-                    ws.set(j++, w);
+                    ws.set(j++, c);
+                    ws.set(j++, first);
                     continue;
                 }
 
-                for (int k = 2; k < c.size(); k++) {
-                    Literal ck = c.get(k);
+                for (int k = 2, size_c = ca.size(c); k < size_c; k++) {
+                    int ck = ca.get(c, k);
                     if (value(ck) != Ternary.FALSE) {
-                        c.set(1, ck);
-                        c.set(k, false_lit);
-                        watches.get(c.get(1).not()).push(w);
+                        ca.set(c, 1, ck);
+                        ca.set(c, k, false_lit);
+                        watches.push(ck ^ 1, c, first);
                         continue L;
                     }
                 }
 
-                ws.set(j++, w);
+                ws.set(j++, c);
+                ws.set(j++, first);
                 if (value(first) == Ternary.FALSE) {
                     confl = c;
                     head = trail.size();
 
                     while (i < size)
                         ws.set(j++, ws.get(i++));
-                } else
-                    uncheckedEnqueue(first, c);
+                } else if (currentLevel == decisionLevel()) {
+                    uncheckedEnqueue(Literal.valueOf(first), currentLevel, c);
+                } else {
+                    int maxLevel = currentLevel;
+                    int maxIndex = 1;
+                    for (int k = 2, size_c = ca.size(c); k < size_c; k++) {
+                        int l = level(ca.get(c, k) >> 1);
+                        if (l > maxLevel) {
+                            maxLevel = l;
+                            maxIndex = k;
+                        }
+                    }
+                    if (maxIndex != 1) {
+                        int ck = ca.get(c, maxIndex);
+                        ca.set(c, 1, ck);
+                        ca.set(c, maxIndex, false_lit);
+                        j -= 2;
+                        watches.push(ck ^ 1, c, first);
+                    }
+                    uncheckedEnqueue(Literal.valueOf(first), maxLevel, c);
+                }
             }
             ws.shrink(i - j);
         }
@@ -535,27 +1036,98 @@ public class Solver {
         return confl;
     }
 
+    private int conflictLevel(int conflict) {
+        int old0 = ca.get(conflict, 0);
+        int old1 = ca.get(conflict, 1);
+        int highest = 0;
+        int second = -1;
+        conflictUnique = true;
+        for (int i = 1; i < ca.size(conflict); i++) {
+            int l = level(ca.get(conflict, i) >> 1);
+            int h = level(ca.get(conflict, highest) >> 1);
+            if (l > h) {
+                second = highest;
+                highest = i;
+                conflictUnique = true;
+            } else {
+                if (l == h) {
+                    conflictUnique = false;
+                }
+                if (second < 0 || l > level(ca.get(conflict, second) >> 1)) {
+                    second = i;
+                }
+            }
+        }
+        swap(conflict, 0, highest);
+        swap(conflict, 1, second == 0 ? highest : second);
+        if (ca.size(conflict) > 2) {
+            int c0 = ca.get(conflict, 0);
+            int c1 = ca.get(conflict, 1);
+            if (old0 != c0 && old0 != c1) {
+                watches.remove(old0 ^ 1, conflict);
+            }
+            if (old1 != c0 && old1 != c1) {
+                watches.remove(old1 ^ 1, conflict);
+            }
+            if (c0 != old0 && c0 != old1) {
+                watches.push(c0 ^ 1, conflict, c1);
+            }
+            if (c1 != old0 && c1 != old1) {
+                watches.push(c1 ^ 1, conflict, c0);
+            }
+        }
+        assertingLevel = level(ca.get(conflict, 1) >> 1);
+        return level(ca.get(conflict, 0) >> 1);
+    }
+
+    private void swap(int cls, int i, int j) {
+        int l = ca.get(cls, i);
+        ca.set(cls, i, ca.get(cls, j));
+        ca.set(cls, j, l);
+    }
+
     private void reduceDB() {
         int i, j;
-        double extra_lim = clauseDecayIncrement / learnt.size();
+        int locals = 0;
+        for (i = 0; i < learnt.size(); i++) {
+            int c = learnt.get(i);
+            if (ca.tier(c) == ClauseAllocator.MID && !ca.used(c)) {
+                ca.tier(c, ClauseAllocator.LOCAL);
+            }
+            if (ca.tier(c) == ClauseAllocator.LOCAL) {
+                locals++;
+            }
+        }
 
         learnt.sort(reduceDB);
 
         for (i = j = 0; i < learnt.size(); i++) {
-            Clause c = learnt.get(i);
-            if (c.size() > 2 && !locked(c) && (i < learnt.size() / 2 || c.activity() < extra_lim)) {
-                removeClause(learnt.get(i));
+            int c = learnt.get(i);
+            if (ca.tier(c) == ClauseAllocator.LOCAL && i < locals / 2 && !locked(c)) {
+                removeClause(c);
             } else {
-                learnt.set(j++, learnt.get(i));
+                ca.used(c, false);
+                learnt.set(j++, c);
             }
         }
         learnt.shrink(i - j);
+        checkGarbage();
     }
 
-    private void removeSatisfied(Vector<Clause> cs) {
+    private void removeDeleted(IntVec cs) {
         int i, j;
         for (i = j = 0; i < cs.size(); i++) {
-            Clause c = cs.get(i);
+            if (ca.mark(cs.get(i)) == 0) {
+                cs.set(j++, cs.get(i));
+            }
+        }
+        cs.shrink(i - j);
+    }
+
+    private void removeSatisfied(IntVec cs) {
+        int i, j;
+        for (i = j = 0; i < cs.size(); i++) {
+            int c = cs.get(i);
             if (isSatisfied(c)) {
                 removeClause(cs.get(i));
             } else {
@@ -565,19 +1137,67 @@ public class Solver {
         cs.shrink(i - j);
     }
 
-    private void rebuildOrderHeap() {
-        Vector<Integer> vs = new Vector<>();
-        for (int v = 0; v < numberOfVariables(); v++)
-            if (decision.get(v) && value(Variable.valueOf(v)) == Ternary.UNDEF) {
-                vs.push(v);
+    private void relocAll(ClauseAllocator to) {
+        watches.relocAll(to);
+        binaries.relocAll(to);
+
+        for (int i = 0; i < trail.size(); i++) {
+            int v = trail.get(i).variable();
+            int r = reason.get(v);
+            if (r >= 0) {
+                reason.set(v, ca.mark(r) == 1 ? ClauseAllocator.UNDEF : ca.reloc(r, to));
             }
-        orderedHeap.build(vs);
+        }
+
+        for (int i = 0; i < learnt.size(); i++) {
+            learnt.set(i, ca.reloc(learnt.get(i), to));
+        }
+
+        for (int i = 0; i < clauses.size(); i++) {
+            clauses.set(i, ca.reloc(clauses.get(i), to));
+        }
+    }
+
+    private void garbageCollect() {
+        ClauseAllocator to = new ClauseAllocator(ca.size() - ca.wasted());
+        relocAll(to);
+        to.moveTo(ca);
+    }
+
+    private void checkGarbage() {
+        if (ca.wasted() > ca.size() * garbageFraction) {
+            garbageCollect();
+        }
+    }
+
+    private void rebuildOrderHeap() {
+        order.rebuild();
     }
 
     private boolean simplify() {
-        if (!ok || propagate() != null) {
+        if (!ok || propagate() != ClauseAllocator.UNDEF) {
             ok = false;
-            return ok;
+            return true;
+        }
+
+        if (probe && conflicts >= nextProbe) {
+            long budget = Math.max(PROBE_MIN_EFFORT, (long) ((propagation - probePropagation) * probeEffort));
+            if (!incremental) {
+                substitute();
+            }
+            probe(budget);
+            nextProbe = conflicts + probeInterval;
+            probePropagation = propagation;
+            if (!ok) {
+                return true;
+            }
+        }
+
+        if (subsume && conflicts >= nextSubsume) {
+            subsume(Math.max(SUBSUME_MIN_EFFORT, (long) ((propagation - subsumePropagation) * subsumeEffort)));
+            if (!ok) {
+                return true;
+            }
         }
 
         if (nAssigns() == simplifyDBAssigns || (simplifyDBPropositions > 0)) {
@@ -588,6 +1208,7 @@ public class Solver {
         if (removeSatisfied) {
             removeSatisfied(clauses);
         }
+        checkGarbage();
         rebuildOrderHeap();
         simplifyDBAssigns = nAssigns();
         simplifyDBPropositions = clausesLiterals + learntLiterals;
@@ -595,51 +1216,236 @@ public class Solver {
         return false;
     }
 
-    private Ternary search(int nof_conflicts) {
+    private void subsume(long budget) {
+        subsumer.subsume(clauses, learnt, budget);
+        removeDeleted(clauses);
+        removeDeleted(learnt);
+        checkGarbage();
+        nextSubsume = conflicts + subsumeInterval;
+        subsumePropagation = propagation;
+    }
+
+    private void substitute() {
+        int found = equivalences.find(binaries);
+        if (found < 0) {
+            ok = false;
+            return;
+        } else if (found == 0) {
+            return;
+        }
+
+        for (int v = 0; v < numberOfVariables(); v++) {
+            int r = equivalences.representative(2 * v);
+            if (r != 2 * v) {
+                eliminator.substitute(2 * v, r);
+                setDecisionVariable(v, false);
+            }
+        }
+        substitute(clauses);
+        substitute(learnt);
+        removeDeleted(clauses);
+        removeDeleted(learnt);
+        checkGarbage();
+    }
+
+    private void substitute(IntVec cs) {
+        for (int i = 0, size = cs.size(); i < size && ok; i++) {
+            int c = cs.get(i);
+            if (ca.mark(c) != 0) {
+                continue;
+            }
+            int k = 0;
+            while (k < ca.size(c) && equivalences.representative(ca.get(c, k)) == ca.get(c, k)) {
+                k++;
+            }
+            if (k < ca.size(c)) {
+                addTmp.clear();
+                for (k = 0; k < ca.size(c); k++) {
+                    addTmp.push(equivalences.representative(ca.get(c, k)));
+                }
+                replaceClause(c, addTmp);
+            }
+        }
+    }
+
+    private void probe(long budget) {
+        int n = numberOfVariables();
+        int saved = phaseSaving;
+        int start = propagation;
+        phaseSaving = 0;
+        probeMarks.growTo(2 * n);
+        for (int k = 0; k < n && ok && propagation - start < budget; k++) {
+            int v = probeNext;
+            probeNext = (probeNext + 1) % n;
+            if (!decision.get(v) || value(2 * v) != Ternary.UNDEF) {
+                continue;
+            }
+
+            probeStamp++;
+            probeUnits.clear();
+            for (int s = 0; s < 2 && value(2 * v) == Ternary.UNDEF; s++) {
+                int p = 2 * v + s;
+                if (binaries.get(p).isEmpty()) {
+                    continue;
+                }
+                newDecisionLevel();
+                uncheckedEnqueue(Literal.valueOf(p));
+                if (propagate() != ClauseAllocator.UNDEF) {
+                    cancelUntil(0);
+                    probeUnits.clear();
+                    probeUnits.push(p ^ 1);
+                    break;
+                }
+                for (int i = trailLimit.get(0) + 1; i < trail.size(); i++) {
+                    int q = trail.get(i).value();
+                    if (s == 0) {
+                        probeMarks.set(q, probeStamp);
+                    } else if (probeMarks.get(q) == probeStamp) {
+                        probeUnits.push(q);
+                    }
+                }
+                cancelUntil(0);
+            }
+
+            for (int i = 0; i < probeUnits.size(); i++) {
+                int q = probeUnits.get(i);
+                if (value(q) == Ternary.UNDEF) {
+                    uncheckedEnqueue(Literal.valueOf(q));
+                    probed++;
+                } else if (value(q) == Ternary.FALSE) {
+                    ok = false;
+                }
+            }
+            if (ok && propagate() != ClauseAllocator.UNDEF) {
+                ok = false;
+            }
+        }
+        phaseSaving = saved;
+    }
+
+    private void vivify(long budget) {
+        vivifyCandidates.clear();
+        for (int i = 0; i < learnt.size(); i++) {
+            int c = learnt.get(i);
+            if (ca.tier(c) != ClauseAllocator.LOCAL && !ca.vivified(c)) {
+                vivifyCandidates.push(c);
+            }
+        }
+        vivifyCandidates.sort((x, y) -> ca.lbd(x) < ca.lbd(y) || ca.lbd(x) == ca.lbd(y) && ca.activity(x) > ca.activity(y));
+
+        int saved = phaseSaving;
+        int start = propagation;
+        phaseSaving = 0;
+        for (int i = 0; i < vivifyCandidates.size() && ok && propagation - start < budget; i++) {
+            int c = vivifyCandidates.get(i);
+            if (ca.mark(c) != 0 || locked(c)) {
+                continue;
+            }
+            ca.vivified(c, true);
+            vivifyLiterals.clear();
+            for (int k = 0; k < ca.size(c); k++) {
+                vivifyLiterals.push(ca.get(c, k));
+            }
+
+            addTmp.clear();
+            for (int k = 0; k < vivifyLiterals.size(); k++) {
+                int l = vivifyLiterals.get(k);
+                Ternary v = value(l);
+                if (v == Ternary.TRUE) {
+                    addTmp.push(l);
+                    break;
+                } else if (v == Ternary.UNDEF) {
+                    addTmp.push(l);
+                    newDecisionLevel();
+                    uncheckedEnqueue(Literal.valueOf(l ^ 1));
+                    if (propagate() != ClauseAllocator.UNDEF) {
+                        break;
+                    }
+                }
+            }
+            cancelUntil(0);
+
+            if (addTmp.size() < vivifyLiterals.size()) {
+                replaceClause(c, addTmp);
+            }
+        }
+        phaseSaving = saved;
+        removeDeleted(learnt);
+        checkGarbage();
+        nextVivify = conflicts + vivifyInterval;
+        vivifyPropagation = propagation;
+    }
+
+    private void eliminate() {
+        if (!ok) {
+            return;
+        }
+        eliminator.eliminate(clauses);
+        removeDeleted(clauses);
+        checkGarbage();
+        rebuildOrderHeap();
+    }
+
+    private Ternary search() {
         for (; ; ) {
 
-            Clause clauseConflict = propagate();
+            int clauseConflict = propagate();
 
-            if (clauseConflict != null) {
+            if (clauseConflict != ClauseAllocator.UNDEF) {
 
                 conflicts++;
-                conflictCounter++;
-                if (decisionLevel() == 0)
+                conflictLevel = chrono >= 0 ? conflictLevel(clauseConflict) : decisionLevel();
+                if (conflictLevel == 0)
                     return Ternary.FALSE;
+                updatePhases();
+
+                if (chrono >= 0 && conflictUnique) {
+                    cancelUntil(conflictLevel - 1);
+                    int implied = ca.get(clauseConflict, 0);
+                    uncheckedEnqueue(Literal.valueOf(implied), assertingLevel,
+                            ca.size(clauseConflict) == 2 ? binaryReason(ca.get(clauseConflict, 1)) : clauseConflict);
+                    continue;
+                }
 
                 learntClause.clear();
                 int backtrackLevel = analyze(clauseConflict, learntClause);
-                cancelUntil(backtrackLevel);
+                int lbd = computeLbd(learntClause);
+                restartPolicy.conflict(lbd, trail.size());
+                if (chrono >= 0 && assumptions.isEmpty() && conflictLevel - backtrackLevel > chrono) {
+                    cancelUntil(conflictLevel - 1);
+                } else {
+                    cancelUntil(backtrackLevel);
+                }
+
+                if (channel != null) {
+                    export(learntClause, lbd);
+                }
 
                 if (learntClause.size() == 1) {
-                    uncheckedEnqueue(learntClause.get(0));
+                    uncheckedEnqueue(learntClause.get(0), 0, ClauseAllocator.UNDEF);
                 } else {
-                    Clause cr = new Clause(learntClause, true);
+                    int cr = ca.alloc(learntClause, true);
+                    ca.lbd(cr, lbd);
+                    ca.tier(cr, tier(lbd));
                     learnt.push(cr);
                     attachClause(cr);
                     clauseBumpActivity(cr);
-                    uncheckedEnqueue(learntClause.get(0), cr);
+                    uncheckedEnqueue(learntClause.get(0), backtrackLevel, learntClause.size() == 2 ? binaryReason(learntClause.get(1).value()) : cr);
                 }
 
                 variableDecayActivity();
                 clauseDecayActivity();
 
-                if (--learntSizeAdjustCnt == 0) {
-                    learntSizeAdjustConflict *= learntSizeAdjustIncrement;
-                    learntSizeAdjustCnt = (int) learntSizeAdjustConflict;
-                    maxLearnt *= learntSizeIncrement;
-                }
-
             } else {
 
                 int c = numberOfVariables() - trail.size();
-                if (c < cursor) {
+                if (c < cursor && !incremental) {
                     cursor = c;
-                    System.out.printf("\rc %.2f%% \t ", 100.0 * c / numberOfVariables());
+                    out.printf("\rc %.2f%% \t ", 100.0 * c / numberOfVariables());
                 }
 
-                if (nof_conflicts >= 0 && conflictCounter >= nof_conflicts ||
-                        withinBudget()) {
+                if (restartPolicy.restart() || withinBudget()) {
+                    targetAssigned = 0;
                     cancelUntil(0);
                     return Ternary.UNDEF;
                 }
@@ -648,7 +1454,9 @@ public class Solver {
                     return Ternary.FALSE;
                 }
 
-                if (learnt.size() - nAssigns() >= maxLearnt) {
+                if (conflicts >= nextReduce) {
+                    reductions++;
+                    nextReduce = conflicts + reduceFirst + reductions * reduceIncrement;
                     reduceDB();
                 }
 
@@ -683,26 +1491,43 @@ public class Solver {
 
     private Ternary apply() {
         conflict.clear();
+        model.clear();
         if (!ok)
             return Ternary.FALSE;
-        maxLearnt = numberOfClauses();
-        learntSizeAdjustConflict = learntSizeAdjustStartConflict;
-        learntSizeAdjustCnt = (int) learntSizeAdjustConflict;
+        if (nextReduce == 0) {
+            nextReduce = conflicts + reduceFirst;
+        }
         Ternary status = Ternary.UNDEF;
+        boolean walked = false;
 
-        int currentRestarts = 0;
         while (status == Ternary.UNDEF) {
-            double rest_base = biasRestart ? activation(restartIncrement, currentRestarts) : Math.pow(restartIncrement, currentRestarts);
-            status = search((int) (rest_base * restartFirst));
+            if (vivify && conflicts >= nextVivify) {
+                vivify((long) ((propagation - vivifyPropagation) * vivifyEffort));
+                if (!ok) {
+                    status = Ternary.FALSE;
+                    break;
+                }
+            }
+            if (rephase && conflicts >= nextRephase && rephase()) {
+                status = Ternary.TRUE;
+                walked = true;
+                break;
+            }
+            if (channel != null && importClauses()) {
+                status = Ternary.FALSE;
+                break;
+            }
+            restartPolicy.start();
+            status = search();
             if (withinBudget())
                 break;
-            currentRestarts++;
         }
 
         if (status == Ternary.TRUE) {
             model.growTo(numberOfVariables());
             for (int i = 0; i < numberOfVariables(); i++)
-                model.set(i, value(Variable.valueOf(i)));
+                model.set(i, walked ? Ternary.valueOf(walker.value(i)) : value(Variable.valueOf(i)));
+            eliminator.extendModel(model);
         } else if (status == Ternary.FALSE && conflict.size() == 0) {
 
             ok = false;
@@ -712,78 +1537,371 @@ public class Solver {
         return status;
     }
 
-    private void loadCNF() throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(cnfFile));
-        Parser in = new Parser(reader);
-        Vector<Literal> lits = new Vector<>();
-        for (; ; ) {
-            String token = in.read();
-            if (token == null)
-                break;
-            else if (token.equals("c") || token.equals("s"))
-                in.skipLine();
-            else if (token.equals("p")) {
-                token = in.read();
-                if (!token.equals("cnf"))
-                    throw new IOException("PARSE ERROR! 'cnf' expected after 'p'%n");
-                in.readInt();
-                in.readInt();
-            } else {
+    private void reserve(int clauses, int literals) {
+        this.clauses.capacity((int) Math.min(Integer.MAX_VALUE, (long) this.clauses.size() + clauses));
+        ca.reserve((int) Math.min(Integer.MAX_VALUE, literals + 2L * clauses));
+    }
+
+    void load(Formula formula) {
+        IntVec literals = formula.literals();
+        reserve(formula.clauses(), literals.size());
+        newVariables(formula.variables());
+
+        int[] watched = new int[2 * numberOfVariables()];
+        int[] binary = new int[2 * numberOfVariables()];
+        for (int i = 0, start = 0; i < literals.size(); i++) {
+            if (literals.get(i) == Formula.END) {
+                int first = Integer.MAX_VALUE;
+                int second = Integer.MAX_VALUE;
+                for (int k = start; k < i; k++) {
+                    int l = literals.get(k);
+                    if (l < first) {
+                        second = first;
+                        first = l;
+                    } else if (l < second && l != first) {
+                        second = l;
+                    }
+                }
+                if (second != Integer.MAX_VALUE) {
+                    int[] demand = i - start == 2 ? binary : watched;
+                    demand[first ^ 1]++;
+                    demand[second ^ 1]++;
+                }
+                start = i + 1;
+            }
+        }
+        for (int l = 0; l < watched.length; l++) {
+            watches.capacity(l, watched[l]);
+            binaries.capacity(l, binary[l]);
+        }
+
+        int from = clauses.size();
+        IntVec lits = new IntVec();
+        for (int i = 0; i < literals.size() && ok; i++) {
+            if (literals.get(i) == Formula.END) {
+                addClause(lits, false, false);
                 lits.clear();
-                for (; ; ) {
-                    int parsed_lit = Integer.parseInt(token);
-                    if (parsed_lit == 0) break;
-                    int var = Math.abs(parsed_lit) - 1;
-                    while (var >= numberOfVariables()) newVariable();
-                    lits.push(Literal.valueOf(var, parsed_lit < 0));
-                    token = in.read();
+            } else {
+                lits.push(literals.get(i));
+            }
+        }
+        attachAll(from, threads);
+        if (ok) {
+            ok = propagate() == ClauseAllocator.UNDEF;
+        }
+    }
+
+    private void attachAll(int from, int threads) {
+        if (threads <= 1) {
+            for (int i = from; i < clauses.size(); i++) {
+                attachClause(clauses.get(i));
+            }
+            return;
+        }
+        int size = clauses.size() - from;
+        IntVec[][] buckets = new IntVec[threads][2 * threads];
+        int[] sizes = new int[threads];
+        IntStream.range(0, threads).parallel().forEach(part -> {
+            IntVec[] bucket = buckets[part];
+            for (int k = 0; k < bucket.length; k++) {
+                bucket[k] = new IntVec();
+            }
+            int literals = 0;
+            int end = from + (int) ((long) size * (part + 1) / threads);
+            for (int i = from + (int) ((long) size * part / threads); i < end; i++) {
+                int c = clauses.get(i);
+                int c0 = ca.get(c, 0);
+                int c1 = ca.get(c, 1);
+                int binary = ca.size(c) == 2 ? 1 : 0;
+                IntVec b0 = bucket[2 * ((c0 ^ 1) % threads) + binary];
+                b0.push(c0 ^ 1);
+                b0.push(c);
+                b0.push(c1);
+                IntVec b1 = bucket[2 * ((c1 ^ 1) % threads) + binary];
+                b1.push(c1 ^ 1);
+                b1.push(c);
+                b1.push(c0);
+                literals += ca.size(c);
+            }
+            sizes[part] = literals;
+        });
+        IntStream.range(0, threads).parallel().forEach(owner -> {
+            for (int part = 0; part < threads; part++) {
+                for (int binary = 0; binary < 2; binary++) {
+                    IntVec bucket = buckets[part][2 * owner + binary];
+                    Watchers ws = binary == 1 ? binaries : watches;
+                    for (int k = 0; k < bucket.size(); k += 3) {
+                        ws.push(bucket.get(k), bucket.get(k + 1), bucket.get(k + 2));
+                    }
+                }
+            }
+        });
+        for (int part = 0; part < threads; part++) {
+            clausesLiterals += sizes[part];
+        }
+    }
+
+    Ternary solveFormula() {
+        if (!preprocess()) {
+            return Ternary.FALSE;
+        }
+        return apply();
+    }
+
+    Ternary solve(IntVec assumptions) {
+        this.assumptions.clear();
+        for (int i = 0; i < assumptions.size(); i++) {
+            this.assumptions.push(Literal.valueOf(assumptions.get(i)));
+        }
+        Ternary status = apply();
+        this.assumptions.clear();
+        return status;
+    }
+
+    Formula simplified() {
+        Formula formula = new Formula();
+        formula.variables(numberOfVariables());
+        for (int i = 0; i < trail.size(); i++) {
+            formula.add(trail.get(i).value());
+            formula.end();
+        }
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) == 0) {
+                for (int k = 0; k < ca.size(c); k++) {
+                    formula.add(ca.get(c, k));
+                }
+                formula.end();
+            }
+        }
+        return formula;
+    }
+
+    void extend(Solver solver) {
+        model.clear();
+        model.growTo(numberOfVariables());
+        for (int i = 0; i < numberOfVariables(); i++) {
+            model.set(i, i < solver.model.size() ? solver.model.get(i) : value(Variable.valueOf(i)));
+        }
+        eliminator.extendModel(model);
+    }
+
+    IntVec core() {
+        IntVec core = new IntVec();
+        for (int i = 0; i < conflict.size(); i++) {
+            core.push(conflict.get(i).not().value());
+        }
+        return core;
+    }
+
+    boolean preprocess() {
+        out.printf("c VRS : %d\n", numberOfVariables());
+        out.printf("c CLS : %d\n", numberOfClauses());
+        out.printf("c RHO : %.4f\n", (double) numberOfClauses() / numberOfVariables());
+        if (simplify()) {
+            return false;
+        }
+        if (probe) {
+            out.printf("c PRB : %d\n", probed);
+            out.printf("c EQV : %d\n", equivalences.substituted());
+        }
+        if (subsume && ok) {
+            subsume(Math.max(SUBSUME_MIN_EFFORT, (long) SUBSUME_LOAD_EFFORT * clausesLiterals));
+            out.printf("c SUB : %d\n", subsumer.subsumed());
+            out.printf("c STR : %d\n", subsumer.strengthened());
+        }
+        if (eliminate) {
+            eliminate();
+            out.printf("c ELM : %d\n", eliminator.eliminated());
+        }
+        return ok;
+    }
+
+    void cube(int depth, Vector<IntVec> cubes) {
+        int[] occurrences = new int[2 * numberOfVariables()];
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            for (int k = 0; k < ca.size(c); k++) {
+                occurrences[ca.get(c, k)]++;
+            }
+        }
+        int saved = phaseSaving;
+        phaseSaving = 0;
+        cube(depth, occurrences, new IntVec(), cubes);
+        cancelUntil(0);
+        phaseSaving = saved;
+    }
+
+    private void cube(int depth, int[] occurrences, IntVec prefix, Vector<IntVec> cubes) {
+        int v = depth > 0 ? lookahead(occurrences) : -1;
+        if (v < 0) {
+            IntVec copy = new IntVec();
+            prefix.copyTo(copy);
+            cubes.push(copy);
+            return;
+        }
+        for (int s = 0; s < 2; s++) {
+            newDecisionLevel();
+            uncheckedEnqueue(Literal.valueOf(2 * v + s));
+            if (propagate() == ClauseAllocator.UNDEF) {
+                prefix.push(2 * v + s);
+                cube(depth - 1, occurrences, prefix, cubes);
+                prefix.pop();
+            }
+            cancelUntil(decisionLevel() - 1);
+        }
+    }
+
+    private int lookahead(int[] occurrences) {
+        int[] candidates = new int[LOOKAHEAD_CANDIDATES];
+        int size = 0;
+        for (int v = 0; v < numberOfVariables(); v++) {
+            if (!decision.get(v) || value(2 * v) != Ternary.UNDEF || occurrences[2 * v] + occurrences[2 * v + 1] == 0) {
+                continue;
+            }
+            long score = (long) occurrences[2 * v] * occurrences[2 * v + 1];
+            int i = size < candidates.length ? size++ : candidates.length;
+            while (i > 0 && (long) occurrences[2 * candidates[i - 1]] * occurrences[2 * candidates[i - 1] + 1] < score) {
+                if (i < candidates.length) {
+                    candidates[i] = candidates[i - 1];
                 }
-                addClause(lits);
+                i--;
+            }
+            if (i < candidates.length) {
+                candidates[i] = v;
             }
         }
+
+        int best = -1;
+        long bestScore = -1;
+        for (int k = 0; k < size; k++) {
+            int v = candidates[k];
+            long score = 1;
+            for (int s = 0; s < 2; s++) {
+                int assigned = trail.size();
+                newDecisionLevel();
+                uncheckedEnqueue(Literal.valueOf(2 * v + s));
+                boolean failed = propagate() != ClauseAllocator.UNDEF;
+                score *= trail.size() - assigned;
+                cancelUntil(decisionLevel() - 1);
+                if (failed) {
+                    return v;
+                }
+            }
+            if (score > bestScore) {
+                best = v;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    void print(PrintStream out, Ternary status) {
+        if (status == Ternary.TRUE) {
+            out.println("s SATISFIABLE");
+            out.print("v ");
+            for (int i = 0; i < numberOfVariables(); i++) {
+                if (model.get(i) != Ternary.UNDEF) {
+                    out.printf("%s%s%d", (i == 0) ? "" : " ", (model.get(i) == Ternary.TRUE) ? "" : "-", i + 1);
+                }
+            }
+            out.print(" 0\n");
+        } else if (status == Ternary.FALSE) {
+            out.println("s UNSATISFIABLE");
+        } else {
+            out.println("s UNKNOWN");
+        }
     }
 
     public void solve(String cnfFile) {
-        this.cnfFile = cnfFile;
         try {
-            loadDefault();
-            loadCNF();
+            load(Cache.read(cnfFile, cache, threads));
             long ms = System.currentTimeMillis();
             random.setSeed(ms);
-            System.out.printf("c VRS : %d\n", numberOfVariables());
-            System.out.printf("c CLS : %d\n", numberOfClauses());
-            System.out.printf("c RHO : %.4f\n", (double) numberOfClauses() / numberOfVariables());
-            if (simplify()) {
-                System.out.println(String.format("c TIM : %f(s)", (double) (System.currentTimeMillis() - ms) / 1000));
-                System.out.println("s UNSATISFIABLE");
-                return;
-            }
-
-            Ternary ret = apply();
-            System.out.println(String.format("\nc TIM : %f(s)", (double) (System.currentTimeMillis() - ms) / 1000));
-            if (ret == Ternary.TRUE) {
-                System.out.println("s SATISFIABLE");
-            } else {
-                System.out.println("s UNSATISFIABLE");
-            }
-            if (ret == Ternary.TRUE) {
-                System.out.print("v ");
-                for (int i = 0; i < numberOfVariables(); i++) {
-                    if (model.get(i) != Ternary.UNDEF) {
-                        System.out.printf("%s%s%d", (i == 0) ? "" : " ", (model.get(i) == Ternary.TRUE) ? "" : "-", i + 1);
-                    }
-                }
-                System.out.print(" 0\n");
+            Ternary ret = solveFormula();
+            out.println(String.format("\nc TIM : %f(s)", (double) (System.currentTimeMillis() - ms) / 1000));
+            if (walk) {
+                out.printf("c FLP : %d\n", walker.flips());
             }
+            print(out, ret);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    static class ReduceDB implements Serializable, Comparator<Clause> {
+    private int literal(int dimacs) {
+        if (dimacs == 0) {
+            throw new IllegalArgumentException("literal 0");
+        }
+        int var = Math.abs(dimacs) - 1;
+        while (var >= numberOfVariables()) {
+            newVariable();
+        }
+        return var + var + (dimacs < 0 ? 1 : 0);
+    }
+
+    public int newVar() {
+        newVariable();
+        return numberOfVariables();
+    }
+
+    public boolean addClause(int... literals) {
+        apiTmp.clear();
+        for (int dimacs : literals) {
+            apiTmp.push(literal(dimacs));
+        }
+        addClause(apiTmp);
+        return ok;
+    }
+
+    public Ternary solve(int... assumptions) {
+        incremental = true;
+        apiTmp.clear();
+        for (int dimacs : assumptions) {
+            apiTmp.push(literal(dimacs));
+        }
+        return solve(apiTmp);
+    }
+
+    public Ternary modelValue(int literal) {
+        int var = Math.abs(literal) - 1;
+        if (literal == 0 || var >= model.size()) {
+            return Ternary.UNDEF;
+        }
+        return model.get(var).xor(literal < 0);
+    }
+
+    public int[] failedAssumptions() {
+        int[] failed = new int[conflict.size()];
+        for (int i = 0; i < conflict.size(); i++) {
+            Literal p = conflict.get(i).not();
+            failed[i] = p.sign() ? -(p.variable() + 1) : p.variable() + 1;
+        }
+        return failed;
+    }
+
+    static class ReduceDB implements IntVec.Order {
+
+        private final ClauseAllocator ca;
+
+        ReduceDB(ClauseAllocator ca) {
+            this.ca = ca;
+        }
+
         @Override
-        public int compare(Clause x, Clause y) {
-            return Double.compare(x.activity(), y.activity());
+        public boolean lt(int x, int y) {
+            boolean localX = ca.tier(x) == ClauseAllocator.LOCAL;
+            boolean localY = ca.tier(y) == ClauseAllocator.LOCAL;
+            if (localX != localY) {
+                return localX;
+            }
+            if (!localX) {
+                return false;
+            }
+            if (ca.activity(x) != ca.activity(y)) {
+                return ca.activity(x) < ca.activity(y);
+            }
+            return ca.lbd(x) > ca.lbd(y);
         }
     }
 }
@@ -0,0 +1,182 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Arrays;
+
+class Subsumer {
+
+    private final Solver solver;
+    private final ClauseAllocator ca;
+    private final IntVec cs = new IntVec();
+    private final IntVec queue = new IntVec();
+    private final Vector<IntVec> occurs = new Vector<>();
+    private final BoolVec touched = new BoolVec();
+    private final IntVec variables = new IntVec();
+    private final IntVec marks = new IntVec();
+    private long[] signatures = new long[0];
+    private int stamp;
+    private long steps;
+    private int subsumed;
+    private int strengthened;
+
+    Subsumer(Solver solver, ClauseAllocator ca) {
+        this.solver = solver;
+        this.ca = ca;
+    }
+
+    int subsumed() {
+        return subsumed;
+    }
+
+    int strengthened() {
+        return strengthened;
+    }
+
+    void subsume(IntVec clauses, IntVec learnt, long budget) {
+        int n = solver.numberOfVariables();
+        while (occurs.size() < n) {
+            occurs.push(new IntVec());
+        }
+        touched.growTo(n);
+        marks.growTo(2 * n);
+        cs.clear();
+        queue.clear();
+        steps = 0;
+
+        queue(clauses, budget);
+        queue(learnt, budget);
+        if (queue.isEmpty()) {
+            return;
+        }
+        index(clauses, 2 * budget);
+        index(learnt, 2 * budget);
+        queue.sort((x, y) -> ca.size(cs.get(x)) < ca.size(cs.get(y)));
+
+        long limit = steps + budget;
+        for (int k = 0; k < queue.size() && steps < limit && solver.okay(); k++) {
+            int i = queue.get(k);
+            int c = cs.get(i);
+            if (ca.mark(c) == 0) {
+                ca.checked(c, true);
+                backward(i);
+            }
+        }
+
+        for (int i = 0; i < variables.size(); i++) {
+            occurs.get(variables.get(i)).clear();
+            touched.set(variables.get(i), false);
+        }
+        variables.clear();
+        cs.clear();
+        queue.clear();
+    }
+
+    private void queue(IntVec clauses, long budget) {
+        for (int i = 0; i < clauses.size() && steps < budget; i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) == 0 && !ca.checked(c)) {
+                steps += ca.size(c);
+                attach(c);
+            }
+        }
+    }
+
+    private void index(IntVec clauses, long budget) {
+        for (int i = 0; i < clauses.size() && steps < budget; i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) == 0 && ca.checked(c)) {
+                steps += ca.size(c);
+                int k = 0;
+                while (k < ca.size(c) && !touched.get(ca.get(c, k) >> 1)) {
+                    k++;
+                }
+                if (k < ca.size(c)) {
+                    attach(c);
+                }
+            }
+        }
+    }
+
+    private void attach(int cls) {
+        int i = cs.size();
+        cs.push(cls);
+        if (i == signatures.length) {
+            signatures = Arrays.copyOf(signatures, Math.max(16, i + (i >> 1)));
+        }
+        boolean checked = ca.checked(cls);
+        long signature = 0;
+        for (int k = 0; k < ca.size(cls); k++) {
+            int v = ca.get(cls, k) >> 1;
+            signature |= 1L << (v & 63);
+            if (!touched.get(v)) {
+                if (checked) {
+                    continue;
+                }
+                touched.set(v, true);
+                variables.push(v);
+            }
+            occurs.get(v).push(i);
+        }
+        signatures[i] = signature;
+        if (!checked) {
+            queue.push(i);
+        }
+    }
+
+    private void backward(int i) {
+        int c = cs.get(i);
+        int size = ca.size(c);
+        stamp++;
+        int best = ca.get(c, 0) >> 1;
+        for (int k = 0; k < size; k++) {
+            int literal = ca.get(c, k);
+            marks.set(literal, stamp);
+            if (occurs.get(literal >> 1).size() < occurs.get(best).size()) {
+                best = literal >> 1;
+            }
+        }
+        steps += size;
+
+        IntVec os = occurs.get(best);
+        for (int k = 0, end = os.size(); k < end && solver.okay(); k++) {
+            int j = os.get(k);
+            int d = cs.get(j);
+            steps++;
+            if (j == i || ca.mark(d) != 0 || ca.size(d) < size || (signatures[i] & ~signatures[j]) != 0) {
+                continue;
+            }
+
+            int same = 0, flips = 0, flip = 0;
+            steps += ca.size(d);
+            for (int t = 0; t < ca.size(d); t++) {
+                int literal = ca.get(d, t);
+                if (marks.get(literal) == stamp) {
+                    same++;
+                } else if (marks.get(literal ^ 1) == stamp) {
+                    flips++;
+                    flip = literal;
+                }
+            }
+
+            if (same == size) {
+                if (ca.learnt(d) || !ca.learnt(c)) {
+                    solver.removeClause(d);
+                    subsumed++;
+                }
+            } else if (same == size - 1 && flips == 1) {
+                int cr = solver.strengthenClause(d, flip);
+                strengthened++;
+                if (cr != ClauseAllocator.UNDEF) {
+                    attach(cr);
+                }
+            }
+        }
+    }
+}
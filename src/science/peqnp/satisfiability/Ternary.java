@@ -17,6 +17,12 @@ public enum Ternary {
             {UNDEF, UNDEF},
     };
 
+    private static final Ternary[] CODES = {TRUE, FALSE, UNDEF, UNDEF};
+
+    static Ternary valueOf(int code) {
+        return CODES[code];
+    }
+
     public static Ternary valueOf(boolean extendedBoolean) {
         return extendedBoolean ? TRUE : FALSE;
     }
@@ -24,4 +30,8 @@ public enum Ternary {
     public Ternary xor(boolean extendedBoolean) {
         return XOR[this.ordinal()][extendedBoolean ? 0 : 1];
     }
+
+    byte code() {
+        return (byte) ordinal();
+    }
 }
\ No newline at end of file
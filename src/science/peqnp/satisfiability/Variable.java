@@ -8,15 +8,14 @@
 
 package science.peqnp.satisfiability;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 class Variable {
 
     private static final int UNDEF_VALUE = -1;
     static final Variable UNDEF = new Variable(UNDEF_VALUE);
-    private static final List<Variable> cache = new ArrayList<>();
-    private int value;
+    private static volatile Variable[] cache = new Variable[0];
+    private final int value;
 
     private Variable(int value) {
         this.value = value;
@@ -25,10 +24,21 @@ class Variable {
     static Variable valueOf(int value) {
         if (value == UNDEF_VALUE) return UNDEF;
 
-        for (int i = cache.size(); i <= value; ++i)
-            cache.add(new Variable(i));
+        Variable[] variables = cache;
+        return value < variables.length ? variables[value] : grow(value);
+    }
 
-        return cache.get(value);
+    private static synchronized Variable grow(int value) {
+        Variable[] variables = cache;
+        if (value >= variables.length) {
+            int old = variables.length;
+            variables = Arrays.copyOf(variables, Math.max(value + 1, old + (old >> 1)));
+            for (int i = old; i < variables.length; i++) {
+                variables[i] = new Variable(i);
+            }
+            cache = variables;
+        }
+        return variables[value];
     }
 
     int value() {
@@ -0,0 +1,130 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Random;
+
+class VmtfHeuristic implements DecisionHeuristic {
+
+    private static final int NONE = -1;
+
+    private final ByteVec assigns;
+    private final BoolVec decision;
+    private IntVec prev = new IntVec();
+    private IntVec next = new IntVec();
+    private IntVec stamp = new IntVec();
+    private IntVec bumped = new IntVec();
+    private int first = NONE;
+    private int last = NONE;
+    private int search = NONE;
+    private int stamps;
+
+    VmtfHeuristic(ByteVec assigns, BoolVec decision) {
+        this.assigns = assigns;
+        this.decision = decision;
+    }
+
+    private boolean candidate(int variable) {
+        return decision.get(variable) && assigns.get(variable) == Ternary.UNDEF.code();
+    }
+
+    private void dequeue(int variable) {
+        int p = prev.get(variable);
+        int n = next.get(variable);
+        if (p == NONE) first = n;
+        else next.set(p, n);
+        if (n == NONE) last = p;
+        else prev.set(n, p);
+    }
+
+    private void enqueue(int variable) {
+        if (stamps == Integer.MAX_VALUE) {
+            restamp();
+        }
+        prev.set(variable, last);
+        next.set(variable, NONE);
+        if (last == NONE) first = variable;
+        else next.set(last, variable);
+        last = variable;
+        stamp.set(variable, ++stamps);
+    }
+
+    private void restamp() {
+        stamps = 0;
+        for (int v = first; v != NONE; v = next.get(v)) {
+            stamp.set(v, ++stamps);
+        }
+    }
+
+    @Override
+    public void newVariables(int from, int to) {
+        prev.growTo(to, NONE);
+        next.growTo(to, NONE);
+        stamp.growTo(to);
+        for (int v = from; v < to; v++) {
+            enqueue(v);
+            insert(v);
+        }
+    }
+
+    @Override
+    public void insert(int variable) {
+        if (search == NONE || stamp.get(variable) > stamp.get(search)) {
+            search = variable;
+        }
+    }
+
+    @Override
+    public void bump(int variable) {
+        bumped.push(variable);
+    }
+
+    @Override
+    public void flush() {
+        bumped.sort((x, y) -> stamp.get(x) < stamp.get(y));
+        for (int i = 0; i < bumped.size(); i++) {
+            moveToFront(bumped.get(i));
+        }
+        bumped.clear();
+    }
+
+    private void moveToFront(int variable) {
+        if (variable == last) {
+            return;
+        }
+        if (variable == search) {
+            search = prev.get(variable);
+        }
+        dequeue(variable);
+        enqueue(variable);
+        if (candidate(variable)) {
+            search = variable;
+        }
+    }
+
+    @Override
+    public int next() {
+        int variable = search;
+        while (variable != NONE && !candidate(variable)) {
+            variable = prev.get(variable);
+        }
+        search = variable;
+        return variable;
+    }
+
+    @Override
+    public int random(Random random) {
+        return stamp.isEmpty() ? NONE : random.nextInt(stamp.size());
+    }
+
+    @Override
+    public void rebuild() {
+        search = last;
+    }
+}
@@ -0,0 +1,88 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Random;
+
+class VsidsHeuristic implements DecisionHeuristic {
+
+    private final ByteVec assigns;
+    private final BoolVec decision;
+    private final Heap heap;
+
+    VsidsHeuristic(DoubleVec activity, ByteVec assigns, BoolVec decision) {
+        this.assigns = assigns;
+        this.decision = decision;
+        this.heap = new Heap(activity);
+    }
+
+    private boolean candidate(int variable) {
+        return decision.get(variable) && assigns.get(variable) == Ternary.UNDEF.code();
+    }
+
+    @Override
+    public void newVariables(int from, int to) {
+        if (to - from < heap.size()) {
+            for (int v = from; v < to; v++) {
+                insert(v);
+            }
+            return;
+        }
+        for (int v = from; v < to; v++) {
+            if (!heap.inHeap(v) && decision.get(v)) {
+                heap.append(v);
+            }
+        }
+        heap.build();
+    }
+
+    @Override
+    public void insert(int variable) {
+        if (!heap.inHeap(variable) && decision.get(variable)) {
+            heap.insert(variable);
+        }
+    }
+
+    @Override
+    public void bump(int variable) {
+        if (heap.inHeap(variable)) {
+            heap.decrease(variable);
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public int next() {
+        while (!heap.empty()) {
+            int variable = heap.removeMin();
+            if (candidate(variable)) {
+                return variable;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int random(Random random) {
+        return heap.empty() ? -1 : heap.get(random.nextInt(heap.size()));
+    }
+
+    @Override
+    public void rebuild() {
+        heap.clear();
+        for (int v = 0; v < assigns.size(); v++)
+            if (candidate(v)) {
+                heap.append(v);
+            }
+        heap.build();
+    }
+}
@@ -0,0 +1,274 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import java.util.Random;
+
+class Walker {
+
+    private static final double EPSILON = 1.0;
+    private static final int MAX_BREAK = 64;
+
+    private final Solver solver;
+    private final ClauseAllocator ca;
+    private final double[] probabilities = new double[MAX_BREAK + 1];
+    private int[] literals = new int[0];
+    private int[] starts = new int[1];
+    private int[] occurrences = new int[0];
+    private int[] occurrenceStarts = new int[1];
+    private int[] numberOfTrue = new int[0];
+    private int[] trueXor = new int[0];
+    private int[] breaks = new int[0];
+    private int[] unsat = new int[0];
+    private int[] unsatPosition = new int[0];
+    private int[] diff = new int[0];
+    private int[] diffPosition = new int[0];
+    private double[] weights = new double[0];
+    private boolean[] values = new boolean[0];
+    private boolean[] best = new boolean[0];
+    private boolean[] fixed = new boolean[0];
+    private int numberOfClauses;
+    private int numberOfUnsat;
+    private int numberOfDiff;
+    private long flips;
+
+    Walker(Solver solver, ClauseAllocator ca) {
+        this.solver = solver;
+        this.ca = ca;
+    }
+
+    long flips() {
+        return flips;
+    }
+
+    boolean value(int variable) {
+        return values[variable];
+    }
+
+    boolean walk(IntVec clauses, BoolVec polarity, Random random, long budget) {
+        int n = solver.numberOfVariables();
+        if (!load(clauses, n)) {
+            return false;
+        }
+
+        for (int v = 0; v < n; v++) {
+            values[v] = fixed[v] ? solver.value(2 * v) == Ternary.TRUE : !polarity.get(v);
+            best[v] = values[v];
+            diffPosition[v] = -1;
+        }
+        numberOfDiff = 0;
+        initialize(n);
+
+        int bestUnsat = numberOfUnsat;
+        for (long k = 0; k < budget && numberOfUnsat > 0; k++) {
+            int c = unsat[random.nextInt(numberOfUnsat)];
+            double sum = 0;
+            for (int i = starts[c]; i < starts[c + 1]; i++) {
+                int v = literals[i] >> 1;
+                double w = fixed[v] ? 0 : probabilities[Math.min(breaks[v], MAX_BREAK)];
+                weights[i - starts[c]] = w;
+                sum += w;
+            }
+            if (sum == 0) {
+                break;
+            }
+            double r = random.nextDouble() * sum;
+            int i = starts[c];
+            while (i < starts[c + 1] - 1 && (r -= weights[i - starts[c]]) > 0) {
+                i++;
+            }
+            flip(literals[i] >> 1);
+            flips++;
+
+            if (numberOfUnsat < bestUnsat) {
+                bestUnsat = numberOfUnsat;
+                for (int j = 0; j < numberOfDiff; j++) {
+                    best[diff[j]] = values[diff[j]];
+                    diffPosition[diff[j]] = -1;
+                }
+                numberOfDiff = 0;
+            }
+        }
+
+        if (numberOfUnsat == 0) {
+            return true;
+        }
+        for (int v = 0; v < n; v++) {
+            if (!fixed[v]) {
+                polarity.set(v, !best[v]);
+            }
+        }
+        return false;
+    }
+
+    private boolean load(IntVec clauses, int n) {
+        int size = 0;
+        int maxLength = 0;
+        int[] counts = new int[2 * n + 1];
+        numberOfClauses = 0;
+        fixed = grow(fixed, n);
+        for (int v = 0; v < n; v++) {
+            fixed[v] = solver.value(2 * v) != Ternary.UNDEF;
+        }
+
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) != 0 || satisfied(c)) {
+                continue;
+            }
+            int length = 0;
+            for (int k = 0; k < ca.size(c); k++) {
+                int l = ca.get(c, k);
+                if (!fixed[l >> 1]) {
+                    counts[l]++;
+                    length++;
+                }
+            }
+            if (length == 0) {
+                return false;
+            }
+            size += length;
+            maxLength = Math.max(maxLength, length);
+            numberOfClauses++;
+        }
+
+        literals = grow(literals, size);
+        starts = grow(starts, numberOfClauses + 1);
+        occurrences = grow(occurrences, size);
+        occurrenceStarts = grow(occurrenceStarts, 2 * n + 1);
+        numberOfTrue = grow(numberOfTrue, numberOfClauses);
+        trueXor = grow(trueXor, numberOfClauses);
+        unsat = grow(unsat, numberOfClauses);
+        unsatPosition = grow(unsatPosition, numberOfClauses);
+        breaks = grow(breaks, n);
+        diff = grow(diff, n);
+        diffPosition = grow(diffPosition, n);
+        values = grow(values, n);
+        best = grow(best, n);
+        if (weights.length < maxLength) {
+            weights = new double[maxLength];
+        }
+
+        occurrenceStarts[0] = 0;
+        for (int l = 0; l < 2 * n; l++) {
+            occurrenceStarts[l + 1] = occurrenceStarts[l] + counts[l];
+            counts[l] = occurrenceStarts[l];
+        }
+
+        int j = 0;
+        int index = 0;
+        for (int i = 0; i < clauses.size(); i++) {
+            int c = clauses.get(i);
+            if (ca.mark(c) != 0 || satisfied(c)) {
+                continue;
+            }
+            starts[index] = j;
+            for (int k = 0; k < ca.size(c); k++) {
+                int l = ca.get(c, k);
+                if (!fixed[l >> 1]) {
+                    literals[j++] = l;
+                    occurrences[counts[l]++] = index;
+                }
+            }
+            index++;
+        }
+        starts[index] = j;
+
+        boolean exponential = maxLength > 3 && (double) size / Math.max(1, numberOfClauses) > 3.5;
+        double cb = exponential ? (size > 5.5 * numberOfClauses ? 5.4 : 3.7) : 2.38;
+        for (int b = 0; b <= MAX_BREAK; b++) {
+            probabilities[b] = exponential ? Math.pow(cb, -b) : Math.pow(EPSILON + b, -cb);
+        }
+        return true;
+    }
+
+    private boolean satisfied(int cls) {
+        for (int k = 0; k < ca.size(cls); k++) {
+            if (solver.value(ca.get(cls, k)) == Ternary.TRUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void initialize(int n) {
+        for (int v = 0; v < n; v++) {
+            breaks[v] = 0;
+        }
+        numberOfUnsat = 0;
+        for (int c = 0; c < numberOfClauses; c++) {
+            int count = 0;
+            int xor = 0;
+            for (int i = starts[c]; i < starts[c + 1]; i++) {
+                int l = literals[i];
+                if (values[l >> 1] == ((l & 1) == 0)) {
+                    count++;
+                    xor ^= l >> 1;
+                }
+            }
+            numberOfTrue[c] = count;
+            trueXor[c] = xor;
+            if (count == 0) {
+                unsatPosition[c] = numberOfUnsat;
+                unsat[numberOfUnsat++] = c;
+            } else if (count == 1) {
+                breaks[xor]++;
+            }
+        }
+    }
+
+    private void flip(int variable) {
+        values[variable] = !values[variable];
+        if (diffPosition[variable] >= 0) {
+            int last = diff[--numberOfDiff];
+            diff[diffPosition[variable]] = last;
+            diffPosition[last] = diffPosition[variable];
+            diffPosition[variable] = -1;
+        } else {
+            diffPosition[variable] = numberOfDiff;
+            diff[numberOfDiff++] = variable;
+        }
+
+        int made = values[variable] ? 2 * variable : 2 * variable + 1;
+        int broken = made ^ 1;
+        for (int i = occurrenceStarts[made]; i < occurrenceStarts[made + 1]; i++) {
+            int c = occurrences[i];
+            int count = ++numberOfTrue[c];
+            if (count == 1) {
+                int last = unsat[--numberOfUnsat];
+                unsat[unsatPosition[c]] = last;
+                unsatPosition[last] = unsatPosition[c];
+                breaks[variable]++;
+            } else if (count == 2) {
+                breaks[trueXor[c]]--;
+            }
+            trueXor[c] ^= variable;
+        }
+        for (int i = occurrenceStarts[broken]; i < occurrenceStarts[broken + 1]; i++) {
+            int c = occurrences[i];
+            int count = --numberOfTrue[c];
+            trueXor[c] ^= variable;
+            if (count == 0) {
+                unsatPosition[c] = numberOfUnsat;
+                unsat[numberOfUnsat++] = c;
+                breaks[variable]--;
+            } else if (count == 1) {
+                breaks[trueXor[c]]++;
+            }
+        }
+    }
+
+    private static int[] grow(int[] array, int size) {
+        return array.length >= size ? array : new int[Math.max(size, array.length + (array.length >> 1))];
+    }
+
+    private static boolean[] grow(boolean[] array, int size) {
+        return array.length >= size ? array : new boolean[Math.max(size, array.length + (array.length >> 1))];
+    }
+}
@@ -10,53 +10,98 @@ package science.peqnp.satisfiability;
 
 class Watchers {
 
-    private Vector<Vector<Watcher>> watchers = new Vector<>();
+    private final ClauseAllocator ca;
 
-    private Vector<Integer> dirty = new Vector<>();
+    private Vector<IntVec> watchers = new Vector<>();
 
-    private Vector<Literal> dirties = new Vector<>();
+    private BoolVec dirty = new BoolVec();
 
-    void init(Literal idx) {
-        int size = idx.value() + 1;
+    private IntVec dirties = new IntVec();
+
+    Watchers(ClauseAllocator ca) {
+        this.ca = ca;
+    }
+
+    void init(int literal) {
+        int size = literal + 1;
         for (int i = watchers.size(); i < size; ++i) {
-            watchers.push(new Vector<>());
+            watchers.push(new IntVec());
         }
         dirty.growTo(size);
     }
 
-    Vector<Watcher> get(Literal idx) {
-        return watchers.get(idx.value());
+    void capacity(int literal, int entries) {
+        watchers.get(literal).capacity(2 * entries);
+    }
+
+    IntVec get(int literal) {
+        return watchers.get(literal);
+    }
+
+    void push(int literal, int clause, int blocker) {
+        IntVec ws = watchers.get(literal);
+        ws.push(clause);
+        ws.push(blocker);
+    }
+
+    void remove(int literal, int clause) {
+        IntVec ws = watchers.get(literal);
+        for (int i = 0; i < ws.size(); i += 2) {
+            if (ws.get(i) == clause) {
+                ws.set(i, ws.get(ws.size() - 2));
+                ws.set(i + 1, ws.get(ws.size() - 1));
+                ws.shrink(2);
+                return;
+            }
+        }
     }
 
-    void smudge(Literal literal) {
-        if (dirty.get(literal.value()) == 0) {
-            dirty.set(literal.value(), 1);
+    void smudge(int literal) {
+        if (!dirty.get(literal)) {
+            dirty.set(literal, true);
             dirties.push(literal);
         }
     }
 
     void cleanAll() {
         for (int i = 0; i < dirties.size(); i++) {
-            if (dirty.get(dirties.get(i).value()) != 0) {
+            if (dirty.get(dirties.get(i))) {
                 clean(dirties.get(i));
             }
         }
         dirties.clear();
     }
 
-    private boolean deleted(Watcher w) {
-        return w.clause.mark() == 1;
+    void relocAll(ClauseAllocator to) {
+        for (int literal = 0; literal < watchers.size(); literal++) {
+            IntVec ws = watchers.get(literal);
+            int i, j;
+            for (i = j = 0; i < ws.size(); i += 2) {
+                if (!deleted(ws.get(i))) {
+                    ws.set(j++, ca.reloc(ws.get(i), to));
+                    ws.set(j++, ws.get(i + 1));
+                }
+            }
+            ws.shrink(i - j);
+            dirty.set(literal, false);
+        }
+        dirties.clear();
+    }
+
+    private boolean deleted(int clause) {
+        return ca.mark(clause) == 1;
     }
 
-    private void clean(Literal idx) {
-        Vector<Watcher> vector = watchers.get(idx.value());
+    private void clean(int literal) {
+        IntVec ws = watchers.get(literal);
         int i, j;
-        for (i = j = 0; i < vector.size(); i++) {
-            if (!deleted(vector.get(i))) {
-                vector.set(j++, vector.get(i));
+        for (i = j = 0; i < ws.size(); i += 2) {
+            if (!deleted(ws.get(i))) {
+                ws.set(j++, ws.get(i));
+                ws.set(j++, ws.get(i + 1));
             }
         }
-        vector.shrink(i - j);
-        dirty.set(idx.value(), 0);
+        ws.shrink(i - j);
+        dirty.set(literal, false);
     }
 }
@@ -0,0 +1,74 @@
+///////////////////////////////////////////////////////////////////////////////
+//        copyright (c) 2012-2019 Oscar Riveros. all rights reserved.        //
+//                           oscar.riveros@peqnp.com                         //
+//                                                                           //
+//   without any restriction, Oscar Riveros reserved rights, patents and     //
+//  commercialization of this knowledge or derived directly from this work.  //
+///////////////////////////////////////////////////////////////////////////////
+
+package science.peqnp.satisfiability;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CubeAndConquerTest {
+
+    private static final int[][] CLAUSES = {{1}, {1, 4}, {2, 3}, {-2, -3}};
+
+    @Test
+    void keepsVariablesThatLeaveTheSimplifiedFormula() throws IOException {
+        Path cnf = Files.createTempFile("cube", ".cnf");
+        StringBuilder text = new StringBuilder("p cnf 4 4\n");
+        for (int[] clause : CLAUSES) {
+            for (int literal : clause) {
+                text.append(literal).append(' ');
+            }
+            text.append("0\n");
+        }
+        Files.writeString(cnf, text);
+        PrintStream out = System.out;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(buffer, true));
+            new CubeAndConquer(1, 3, solver -> solver.eliminate(false)).solve(cnf.toString());
+        } finally {
+            System.setOut(out);
+            Files.delete(cnf);
+        }
+        Set<Integer> model = new HashSet<>();
+        boolean satisfiable = false;
+        for (String line : buffer.toString().split("\n")) {
+            if (line.startsWith("s ")) {
+                satisfiable = line.equals("s SATISFIABLE");
+            } else if (line.startsWith("v ")) {
+                for (String literal : line.substring(2).trim().split("\\s+")) {
+                    if (!literal.equals("0")) {
+                        model.add(Integer.parseInt(literal));
+                    }
+                }
+            }
+        }
+        assertTrue(satisfiable);
+        assertEquals(4, model.size());
+        for (int v = 1; v <= 4; v++) {
+            assertTrue(model.contains(v) ^ model.contains(-v));
+        }
+        for (int[] clause : CLAUSES) {
+            boolean satisfied = false;
+            for (int literal : clause) {
+                satisfied |= model.contains(literal);
+            }
+            assertTrue(satisfied);
+        }
+    }
+}